@@ -0,0 +1,143 @@
+package com.skilltree.skilltreebackend.availability;
+
+import com.skilltree.skilltreebackend.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filters over every normalized email and username.
+ * A negative answer is definitive, so most availability checks (one per signup keystroke)
+ * never reach Mongo; a positive answer must still be confirmed with a query.
+ *
+ * Built from a projected scan once the application is ready and rebuilt periodically.
+ * Created users are added immediately. Bloom filters cannot forget, so deletions only
+ * leave stale positives behind; once enough accumulate, a rebuild is triggered early.
+ * Until the first build completes every check reports "maybe" and falls through to Mongo.
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    private record Filters(BloomFilter emails, BloomFilter usernames, long users) {
+        void add(String email, String username) {
+            if (email != null) emails.put(normalize(email));
+            if (username != null) usernames.put(normalize(username));
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final double rebuildAfterDeletedRatio;
+
+    private volatile Filters current;        // null until the first build completes
+    private volatile Filters building;       // receives concurrent adds while a rebuild scans
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong deletedSinceBuild = new AtomicLong();
+
+    public UserAvailabilityIndex(
+            MongoTemplate mongoTemplate,
+            @Qualifier("chatExecutor") ExecutorService executor,
+            @Value("${users.availability.expected-users:100000}") long expectedUsers,
+            @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${users.availability.rebuild-after-deleted-ratio:0.05}") double rebuildAfterDeletedRatio
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildAfterDeletedRatio = rebuildAfterDeletedRatio;
+    }
+
+    /**
+     * @return false only if no user has this email
+     */
+    public boolean mightHaveEmail(String email) {
+        Filters filters = current;
+        return filters == null || filters.emails().mightContain(normalize(email));
+    }
+
+    /**
+     * @return false only if no user has this username (compared case-insensitively)
+     */
+    public boolean mightHaveUsername(String username) {
+        Filters filters = current;
+        return filters == null || filters.usernames().mightContain(normalize(username));
+    }
+
+    public void onUserCreated(User user) {
+        Filters filters = current;
+        if (filters != null) filters.add(user.getEmail(), user.getUsername());
+        Filters next = building;
+        if (next != null) next.add(user.getEmail(), user.getUsername());
+    }
+
+    public void onUserDeleted() {
+        Filters filters = current;
+        if (filters == null) return;
+        long deleted = deletedSinceBuild.incrementAndGet();
+        if (deleted > Math.max(100, filters.users() * rebuildAfterDeletedRatio)) rebuildAsync();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) executor.execute(this::rebuild);
+    }
+
+    @Scheduled(fixedDelayString = "${users.availability.rebuild-interval-ms:3600000}",
+               initialDelayString = "${users.availability.rebuild-interval-ms:3600000}")
+    void scheduledRebuild() {
+        rebuildAsync();
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        try {
+            long count = mongoTemplate.estimatedCount(User.class);
+            // Headroom for growth until the next rebuild
+            long capacity = Math.max(expectedUsers, count * 2);
+            Filters next = new Filters(BloomFilter.create(capacity, falsePositiveRate),
+                    BloomFilter.create(capacity, falsePositiveRate), count);
+            building = next;
+            deletedSinceBuild.set(0);
+
+            Query query = new Query();
+            query.fields().include("email").include("username").exclude("_id");
+            query.cursorBatchSize(2000);
+            try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                users.forEach(doc -> next.add(doc.getString("email"), doc.getString("username")));
+            }
+
+            current = next;
+            log.info("Built user availability filters for {} users ({} KB) in {} ms", count,
+                    (next.emails().sizeInBytes() + next.usernames().sizeInBytes()) / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Could not build user availability filters: {}", e.getMessage());
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,7 @@
+package com.skilltree.skilltreebackend.cache;
+
+/**
+ * A cached chat reply and its absolute expiry time (epoch millis).
+ */
+record CachedReply(String reply, long expiresAt) {
+}
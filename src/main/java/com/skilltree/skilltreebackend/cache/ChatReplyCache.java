@@ -0,0 +1,154 @@
+package com.skilltree.skilltreebackend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.skilltree.skilltreebackend.dto.ChatCacheStats;
+import com.skilltree.skilltreebackend.util.PromptKeys;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Two-tier cache for chat replies keyed by normalized (mode, node, message).
+ * L1 is a weight-bounded Caffeine cache; L2 is a memory-mapped file that survives restarts.
+ * Entries expire after a per-mode TTL in both tiers.
+ */
+@Component
+public class ChatReplyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatReplyCache.class);
+
+    private final boolean enabled;
+    private final long fastTtlMillis;
+    private final long deepTtlMillis;
+    private final Cache<String, CachedReply> memory;
+    private final MappedReplyStore disk;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    public ChatReplyCache(
+            @Value("${chat.cache.enabled:true}") boolean enabled,
+            @Value("${chat.cache.fast-ttl-minutes:360}") long fastTtlMinutes,
+            @Value("${chat.cache.deep-ttl-minutes:1440}") long deepTtlMinutes,
+            @Value("${chat.cache.memory-max-chars:20000000}") long memoryMaxChars,
+            @Value("${chat.cache.disk-enabled:true}") boolean diskEnabled,
+            @Value("${chat.cache.disk-path:data/chat-cache.bin}") String diskPath,
+            @Value("${chat.cache.disk-slots:8192}") int diskSlots,
+            @Value("${chat.cache.disk-slot-bytes:8192}") int diskSlotBytes
+    ) {
+        this.enabled = enabled;
+        this.fastTtlMillis = TimeUnit.MINUTES.toMillis(fastTtlMinutes);
+        this.deepTtlMillis = TimeUnit.MINUTES.toMillis(deepTtlMinutes);
+
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxChars)
+                .weigher((String key, CachedReply value) -> key.length() + value.reply().length())
+                .expireAfter(new Expiry<String, CachedReply>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedReply value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedReply value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedReply value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        MappedReplyStore store = null;
+        if (enabled && diskEnabled) {
+            try {
+                store = new MappedReplyStore(Path.of(diskPath), diskSlots, diskSlotBytes);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Chat disk cache disabled, could not map {}: {}", diskPath, e.getMessage());
+            }
+        }
+        this.disk = store;
+    }
+
+    public Optional<String> get(String mode, String node, String message) {
+        if (!enabled) return Optional.empty();
+        String key = PromptKeys.normalize(mode, node, message);
+
+        CachedReply cached = memory.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached.reply());
+        }
+
+        if (disk != null) {
+            CachedReply stored = disk.get(key, System.currentTimeMillis());
+            if (stored != null) {
+                diskHits.increment();
+                // Promote with the remaining lifetime rather than a fresh TTL
+                memory.put(key, stored);
+                return Optional.of(stored.reply());
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String mode, String node, String message, String reply) {
+        if (!enabled || reply == null || reply.isBlank()) return;
+        String key = PromptKeys.normalize(mode, node, message);
+        long expiresAt = System.currentTimeMillis() + ttlFor(mode);
+
+        memory.put(key, new CachedReply(reply, expiresAt));
+        if (disk != null) disk.put(key, reply, expiresAt);
+        writes.increment();
+    }
+
+    public ChatCacheStats stats() {
+        long l1 = memoryHits.sum();
+        long l2 = diskHits.sum();
+        long miss = misses.sum();
+        long lookups = l1 + l2 + miss;
+        return ChatCacheStats.builder()
+                .memoryHits(l1)
+                .diskHits(l2)
+                .misses(miss)
+                .writes(writes.sum())
+                .memoryEntries(memory.estimatedSize())
+                .hitRatio(lookups == 0 ? 0.0 : (double) (l1 + l2) / lookups)
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (disk == null) return;
+        try {
+            disk.close();
+        } catch (IOException e) {
+            log.warn("Failed to flush chat disk cache: {}", e.getMessage());
+        }
+    }
+
+    private long ttlFor(String mode) {
+        return "deep".equals(mode) ? deepTtlMillis : fastTtlMillis;
+    }
+
+    private static long remainingNanos(CachedReply value) {
+        long remaining = value.expiresAt() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+    }
+}
@@ -0,0 +1,122 @@
+package com.skilltree.skilltreebackend.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Direct-mapped, fixed-size reply store backed by a memory-mapped file.
+ * The file is split into equal slots; a key always maps to the same slot and a newer
+ * entry simply overwrites an older one, so the file never grows past its configured size.
+ * Slot layout: magic(4) crc(4) expiresAt(8) keyLen(4) valueLen(4) key value.
+ */
+class MappedReplyStore implements Closeable {
+
+    // Bumped whenever the key format changes, so slots written under an older format read as empty
+    private static final int MAGIC = 0x53544332; // "STC2"
+    private static final int HEADER_BYTES = 24;
+    private static final int LOCK_STRIPES = 64;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final int slotSize;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    MappedReplyStore(Path path, int slots, int slotSize) throws IOException {
+        long size = (long) slots * slotSize;
+        if (slots <= 0 || slotSize <= HEADER_BYTES || size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid disk cache geometry: " + slots + " x " + slotSize);
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.slots = slots;
+        this.slotSize = slotSize;
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+    }
+
+    /**
+     * @return The stored reply, or null if absent, expired, overwritten or corrupt
+     */
+    CachedReply get(String key, long nowMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = slotFor(key);
+        int base = slot * slotSize;
+
+        synchronized (locks[slot % LOCK_STRIPES]) {
+            if (buffer.getInt(base) != MAGIC) return null;
+            int crc = buffer.getInt(base + 4);
+            long expiresAt = buffer.getLong(base + 8);
+            int keyLen = buffer.getInt(base + 16);
+            int valueLen = buffer.getInt(base + 20);
+
+            if (expiresAt <= nowMillis || keyLen != keyBytes.length) return null;
+            if (valueLen < 0 || HEADER_BYTES + keyLen + valueLen > slotSize) return null;
+
+            byte[] storedKey = new byte[keyLen];
+            buffer.get(base + HEADER_BYTES, storedKey);
+            if (!Arrays.equals(storedKey, keyBytes)) return null;
+
+            byte[] value = new byte[valueLen];
+            buffer.get(base + HEADER_BYTES + keyLen, value);
+            if (checksum(storedKey, value) != crc) return null;
+
+            return new CachedReply(new String(value, StandardCharsets.UTF_8), expiresAt);
+        }
+    }
+
+    /**
+     * @return false if the entry does not fit in a slot and was not stored
+     */
+    boolean put(String key, String value, long expiresAtMillis) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        if (HEADER_BYTES + keyBytes.length + valueBytes.length > slotSize) return false;
+
+        int slot = slotFor(key);
+        int base = slot * slotSize;
+
+        synchronized (locks[slot % LOCK_STRIPES]) {
+            // Invalidate first so a crash mid-write never leaves a slot that looks valid
+            buffer.putInt(base, 0);
+            buffer.putInt(base + 4, checksum(keyBytes, valueBytes));
+            buffer.putLong(base + 8, expiresAtMillis);
+            buffer.putInt(base + 16, keyBytes.length);
+            buffer.putInt(base + 20, valueBytes.length);
+            buffer.put(base + HEADER_BYTES, keyBytes);
+            buffer.put(base + HEADER_BYTES + keyBytes.length, valueBytes);
+            buffer.putInt(base, MAGIC);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int slotFor(String key) {
+        // String.hashCode is specified by the JLS, so slots stay stable across restarts
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), slots);
+    }
+
+    private static int checksum(byte[] key, byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,192 @@
+package com.skilltree.skilltreebackend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skilltree.skilltreebackend.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of user profiles, addressable by id, email and username.
+ * Profiles are stored once, by id, always without the password hash; the email and
+ * username caches only map to ids. A mapping is trusted only if the profile it points
+ * to still carries that email/username, so stale mappings after a rename are harmless.
+ * Callers always receive a copy, so controllers may modify what they get back.
+ *
+ * Reads that load outside the cache take a {@link #writeStamp()} before querying and store
+ * with {@link #putIfUnchanged}, which drops the result if any profile was invalidated in the
+ * meantime; otherwise a slow read could overwrite the fresh profile a concurrent update put.
+ *
+ * Exposes cache.gets/puts/evictions (cache = users.by-id, users.by-email, users.by-username)
+ * through Micrometer's Caffeine binder, which include the hit ratio.
+ */
+@Component
+public class UserCache {
+
+    private final Cache<String, User> byId;
+    private final Cache<String, String> idByEmail;
+    private final Cache<String, String> idByUsername;
+    // Bumped by every invalidation, before the entry is removed
+    private final AtomicLong writes = new AtomicLong();
+
+    public UserCache(
+            MeterRegistry registry,
+            @Value("${users.cache.max-size:50000}") long maxSize,
+            @Value("${users.cache.ttl-minutes:10}") long ttlMinutes
+    ) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        this.idByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(registry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(registry, idByEmail, "users.by-email");
+        CaffeineCacheMetrics.monitor(registry, idByUsername, "users.by-username");
+    }
+
+    /**
+     * Runs the loader inside Caffeine's per-key compute, so a concurrent invalidate waits for it
+     * and then removes whatever it stored.
+     * @param loader Loads the user from the database (may return null); its password is dropped
+     */
+    public User getById(String id, Function<String, User> loader) {
+        User cached = byId.get(id, key -> sanitize(loader.apply(key)));
+        return copyOf(cached);
+    }
+
+    public User getByEmail(String email, Supplier<User> loader) {
+        User cached = peekByEmail(email);
+        return cached != null ? cached : load(loader);
+    }
+
+    public User getByUsername(String username, Supplier<User> loader) {
+        User cached = peekByUsername(username);
+        return cached != null ? cached : load(loader);
+    }
+
+    /*
+     * Lookups without a loader, for callers that load asynchronously and then put() the result.
+     */
+
+    public User peekById(String id) {
+        return copyOf(byId.getIfPresent(id));
+    }
+
+    public User peekByEmail(String email) {
+        String key = email.toLowerCase(Locale.ROOT);
+        return copyOf(resolve(idByEmail.getIfPresent(key), user -> key.equals(user.getEmail())));
+    }
+
+    public User peekByUsername(String username) {
+        return copyOf(resolve(idByUsername.getIfPresent(username), user -> username.equals(user.getUsername())));
+    }
+
+    /**
+     * Stores the state a write just produced; readers use {@link #putIfUnchanged} instead.
+     */
+    public void put(User user) {
+        User profile = sanitize(user);
+        if (profile == null || profile.getId() == null) return;
+        byId.put(profile.getId(), profile);
+        index(profile);
+    }
+
+    /**
+     * @return Token to pass to {@link #putIfUnchanged} for a read that starts now
+     */
+    public long writeStamp() {
+        return writes.get();
+    }
+
+    /**
+     * Stores a profile read from the database unless an invalidation happened since {@code stamp}.
+     * The check runs inside the entry's compute, which an invalidation of the same id waits for.
+     */
+    public void putIfUnchanged(User user, long stamp) {
+        User profile = sanitize(user);
+        if (profile == null || profile.getId() == null) return;
+        User stored = byId.asMap().compute(profile.getId(),
+                (id, existing) -> writes.get() == stamp ? profile : existing);
+        if (stored == profile) index(profile);
+    }
+
+    public void invalidate(String id) {
+        writes.incrementAndGet();
+        User previous = byId.asMap().remove(id);
+        if (previous == null) return;
+        if (previous.getEmail() != null) idByEmail.asMap().remove(previous.getEmail(), id);
+        if (previous.getUsername() != null) idByUsername.asMap().remove(previous.getUsername(), id);
+    }
+
+    /**
+     * Applies a successful login to the cached profile instead of evicting it.
+     */
+    public void updateLastLogin(String id, LocalDateTime lastLogin) {
+        byId.asMap().computeIfPresent(id, (key, user) -> {
+            User updated = copyOf(user);
+            updated.setLastLogin(lastLogin);
+            return updated;
+        });
+    }
+
+    private User resolve(String id, Predicate<User> stillMatches) {
+        if (id == null) return null;
+        User user = byId.getIfPresent(id);
+        return user != null && stillMatches.test(user) ? user : null;
+    }
+
+    private User load(Supplier<User> loader) {
+        long stamp = writeStamp();
+        User user = loader.get();
+        putIfUnchanged(user, stamp);
+        return user == null ? null : copyOf(sanitize(user));
+    }
+
+    private void index(User profile) {
+        if (profile.getEmail() != null) idByEmail.put(profile.getEmail(), profile.getId());
+        if (profile.getUsername() != null) idByUsername.put(profile.getUsername(), profile.getId());
+    }
+
+    private static User sanitize(User user) {
+        if (user == null) return null;
+        User profile = copyOf(user);
+        profile.setPassword(null);
+        return profile;
+    }
+
+    private static User copyOf(User user) {
+        if (user == null) return null;
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setFullName(user.getFullName());
+        copy.setDateOfBirth(user.getDateOfBirth());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setLastLogin(user.getLastLogin());
+        copy.setActive(user.isActive());
+        return copy;
+    }
+}
@@ -1,8 +1,13 @@
 package com.skilltree.skilltreebackend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class AIConfig {
 
@@ -12,6 +17,82 @@ public class AIConfig {
     @Value("${GEMINI_API_KEY:#{null}}")
     private String geminiKey;
 
+    @Value("${ai.groq.base-url:https://api.groq.com/}")
+    private String groqBaseUrl;
+
+    @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com/}")
+    private String geminiBaseUrl;
+
+    @Value("${ai.groq.model:llama3-70b}")
+    private String groqModel;
+
+    @Value("${ai.groq.max-tokens:800}")
+    private int groqMaxTokens;
+
+    @Value("${ai.groq.temperature:0.2}")
+    private double groqTemperature;
+
+    @Value("${ai.groq.system-prompt:You are SkillTree AI. Be clear, concise and educational.}")
+    private String groqSystemPrompt;
+
+    @Value("${ai.groq.user-template:Node: {node}\nMessage: {message}}")
+    private String groqUserTemplate;
+
+    // SpEL map literal, node category -> template, e.g. {'frontend':'UI topic: {node}\nMessage: {message}'}
+    @Value("#{${ai.groq.node-type-templates:{:}}}")
+    private Map<String, String> groqNodeTypeTemplates;
+
+    @Value("${ai.gemini.model:gemini-pro}")
+    private String geminiModel;
+
+    @Value("${ai.gemini.max-tokens:1200}")
+    private int geminiMaxTokens;
+
+    @Value("${ai.gemini.temperature:0.2}")
+    private double geminiTemperature;
+
+    @Value("${ai.gemini.user-template:SkillTree Deep Mode. Node: {node}\nMessage: {message}}")
+    private String geminiUserTemplate;
+
+    @Value("#{${ai.gemini.node-type-templates:{:}}}")
+    private Map<String, String> geminiNodeTypeTemplates;
+
+    @Value("${ai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${ai.http.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${ai.http.call-timeout-ms:60000}")
+    private long callTimeoutMs;
+
+    @Value("${ai.http.stream-call-timeout-ms:180000}")
+    private long streamCallTimeoutMs;
+
+    @Value("${ai.http.max-idle-connections:16}")
+    private int maxIdleConnections;
+
+    @Value("${ai.http.keep-alive-ms:300000}")
+    private long keepAliveMs;
+
+    @Value("${ai.http.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    @Value("${ai.http.warmup-enabled:true}")
+    private boolean warmupEnabled;
+
+    @Value("${ai.groq.max-concurrent:64}")
+    private int groqMaxConcurrent;
+
+    @Value("${ai.gemini.max-concurrent:32}")
+    private int geminiMaxConcurrent;
+
+    @Value("${chat.batch.max-items:50}")
+    private int batchMaxItems;
+
+    @Value("${chat.batch.max-parallelism:8}")
+    private int batchMaxParallelism;
+
     public String getGroqKey() {
         return groqKey;
     }
@@ -19,4 +100,110 @@ public class AIConfig {
     public String getGeminiKey() {
         return geminiKey;
     }
+
+    /**
+     * @return Provider base URL, always ending in '/'
+     */
+    public String getBaseUrl(AIProvider provider) {
+        String url = provider == AIProvider.GEMINI ? geminiBaseUrl : groqBaseUrl;
+        if (url == null || url.isBlank()) url = provider.getDefaultBaseUrl();
+        return url.endsWith("/") ? url : url + "/";
+    }
+
+    public String getGroqModel() {
+        return groqModel;
+    }
+
+    public int getGroqMaxTokens() {
+        return groqMaxTokens;
+    }
+
+    public double getGroqTemperature() {
+        return groqTemperature;
+    }
+
+    public String getGroqSystemPrompt() {
+        return groqSystemPrompt;
+    }
+
+    public String getGroqUserTemplate() {
+        return groqUserTemplate;
+    }
+
+    /**
+     * @return User templates keyed by skill node category; nodes of other categories use the default
+     */
+    public Map<String, String> getGroqNodeTypeTemplates() {
+        return groqNodeTypeTemplates == null ? Map.of() : groqNodeTypeTemplates;
+    }
+
+    public String getGeminiModel() {
+        return geminiModel;
+    }
+
+    public int getGeminiMaxTokens() {
+        return geminiMaxTokens;
+    }
+
+    public double getGeminiTemperature() {
+        return geminiTemperature;
+    }
+
+    public String getGeminiUserTemplate() {
+        return geminiUserTemplate;
+    }
+
+    public Map<String, String> getGeminiNodeTypeTemplates() {
+        return geminiNodeTypeTemplates == null ? Map.of() : geminiNodeTypeTemplates;
+    }
+
+    public long getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    public long getReadTimeoutMs() {
+        return readTimeoutMs;
+    }
+
+    public long getCallTimeoutMs() {
+        return callTimeoutMs;
+    }
+
+    public long getStreamCallTimeoutMs() {
+        return streamCallTimeoutMs;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMs() {
+        return keepAliveMs;
+    }
+
+    public long getAcquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+
+    public boolean isWarmupEnabled() {
+        return warmupEnabled;
+    }
+
+    public int getMaxConcurrent(AIProvider provider) {
+        return provider == AIProvider.GEMINI ? geminiMaxConcurrent : groqMaxConcurrent;
+    }
+
+    public int getBatchMaxItems() {
+        return batchMaxItems;
+    }
+
+    public int getBatchMaxParallelism() {
+        return batchMaxParallelism;
+    }
+
+    // Streams and fan-out calls block on provider I/O; virtual threads keep them off platform threads
+    @Bean(destroyMethod = "close")
+    public ExecutorService chatExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
@@ -0,0 +1,20 @@
+package com.skilltree.skilltreebackend.config;
+
+/**
+ * Upstream LLM providers behind the chat modes.
+ * The base URL here is only the default; AIConfig lets it be overridden (e.g. to point at stubs).
+ */
+public enum AIProvider {
+    GROQ("https://api.groq.com/"),
+    GEMINI("https://generativelanguage.googleapis.com/");
+
+    private final String defaultBaseUrl;
+
+    AIProvider(String defaultBaseUrl) {
+        this.defaultBaseUrl = defaultBaseUrl;
+    }
+
+    public String getDefaultBaseUrl() {
+        return defaultBaseUrl;
+    }
+}
@@ -0,0 +1,229 @@
+package com.skilltree.skilltreebackend.config;
+
+import com.skilltree.skilltreebackend.exception.ProviderBusyException;
+import jakarta.annotation.PreDestroy;
+import okhttp3.*;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Shared HTTP transport for all AI provider calls.
+ * Each provider gets its own connection pool, dispatcher and concurrency cap,
+ * so a slow provider cannot exhaust sockets or slots needed by the other one.
+ */
+@Component
+public class AITransport {
+
+    private static final Logger log = LoggerFactory.getLogger(AITransport.class);
+
+    private final AIConfig config;
+    private final Map<AIProvider, OkHttpClient> clients = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, OkHttpClient> streamingClients = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, Semaphore> permits = new EnumMap<>(AIProvider.class);
+
+    private static final ThreadLocal<Cancellation> CURRENT_CANCELLATION = new ThreadLocal<>();
+
+    public AITransport(AIConfig config) {
+        this.config = config;
+
+        for (AIProvider provider : AIProvider.values()) {
+            int maxConcurrent = config.getMaxConcurrent(provider);
+
+            // Async calls (warm-up) run on virtual threads instead of OkHttp's cached platform pool
+            Dispatcher dispatcher = new Dispatcher(Executors.newVirtualThreadPerTaskExecutor());
+            dispatcher.setMaxRequests(maxConcurrent);
+            dispatcher.setMaxRequestsPerHost(maxConcurrent);
+
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(
+                            config.getMaxIdleConnections(), config.getKeepAliveMs(), TimeUnit.MILLISECONDS))
+                    .dispatcher(dispatcher)
+                    .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                    .readTimeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                    .writeTimeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                    .callTimeout(Duration.ofMillis(config.getCallTimeoutMs()))
+                    .build();
+
+            clients.put(provider, client);
+            // Same pool and dispatcher; only the overall deadline is longer for streamed replies
+            streamingClients.put(provider, client.newBuilder()
+                    .callTimeout(Duration.ofMillis(config.getStreamCallTimeoutMs()))
+                    .build());
+            permits.put(provider, new Semaphore(maxConcurrent));
+        }
+    }
+
+    /**
+     * Executes a call against the provider once a concurrency slot is free.
+     * The slot is held until the returned response is closed, so streamed bodies count too.
+     * @param provider Target provider
+     * @param request Prepared request
+     * @param streaming Whether the body is consumed incrementally (uses the longer call timeout)
+     * @return Open response; callers must close it
+     * @throws ProviderBusyException if no slot frees up within the acquire timeout
+     */
+    public Response execute(AIProvider provider, Request request, boolean streaming) throws IOException {
+        Semaphore semaphore = permits.get(provider);
+        try {
+            if (!semaphore.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new ProviderBusyException(provider,
+                        provider + " is busy right now, please try again shortly.", retryAfterSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a " + provider + " slot");
+        }
+
+        OkHttpClient client = streaming ? streamingClients.get(provider) : clients.get(provider);
+        Response response;
+        try {
+            Call call = client.newCall(request);
+            Cancellation cancellation = CURRENT_CANCELLATION.get();
+            if (cancellation != null) cancellation.attach(call);
+            response = call.execute();
+        } catch (IOException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+        return releaseOnClose(response, semaphore);
+    }
+
+    /**
+     * Runs work on the calling thread so that the provider call it makes can be aborted through
+     * the given handle, e.g. the losing request of a hedged pair once the other one has answered.
+     */
+    public static <T> T withCancellation(Cancellation cancellation, Supplier<T> work) {
+        CURRENT_CANCELLATION.set(cancellation);
+        try {
+            return work.get();
+        } finally {
+            CURRENT_CANCELLATION.remove();
+        }
+    }
+
+        public int connectionCount(AIProvider provider) {
+        return clients.get(provider).connectionPool().connectionCount();
+    }
+
+    public int idleConnectionCount(AIProvider provider) {
+        return clients.get(provider).connectionPool().idleConnectionCount();
+    }
+
+    public int inFlightCount(AIProvider provider) {
+        return config.getMaxConcurrent(provider) - permits.get(provider).availablePermits();
+    }
+
+    /**
+     * Opens a connection to every provider at startup so the first user request
+     * does not pay DNS, TCP and TLS handshake costs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!config.isWarmupEnabled()) return;
+
+        for (AIProvider provider : AIProvider.values()) {
+            Request request = new Request.Builder().url(config.getBaseUrl(provider)).head().build();
+            long start = System.nanoTime();
+            clients.get(provider).newCall(request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    log.info("Warmed up {} connection in {} ms ({})", provider,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), response.protocol());
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    log.warn("Warm-up of {} connection failed: {}", provider, e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (OkHttpClient client : clients.values()) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Handle for aborting the provider call made inside {@link #withCancellation}. Cancelling
+     * closes the OkHttp call, which fails it with an IOException and frees its connection and slot;
+     * cancelling before the call starts makes it fail as soon as it is attached.
+     */
+    public static final class Cancellation {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Call call;
+        private boolean cancelled;
+
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                if (call != null) call.cancel();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void attach(Call call) {
+            lock.lock();
+            try {
+                this.call = call;
+                if (cancelled) call.cancel();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+        // A queued caller waited a full acquire timeout, so suggest backing off at least that long
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getAcquireTimeoutMs() + 999));
+    }
+
+    private static Response releaseOnClose(Response response, Semaphore semaphore) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            semaphore.release();
+            return response;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Source source = new ForwardingSource(body.source()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (released.compareAndSet(false, true)) semaphore.release();
+                }
+            }
+        };
+        ResponseBody guarded = ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength());
+        return response.newBuilder().body(guarded).build();
+    }
+}
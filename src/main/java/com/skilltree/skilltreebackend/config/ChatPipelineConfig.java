@@ -0,0 +1,76 @@
+package com.skilltree.skilltreebackend.config;
+
+import com.skilltree.skilltreebackend.cache.ChatReplyCache;
+import com.skilltree.skilltreebackend.ratelimit.ChatRateLimiter;
+import com.skilltree.skilltreebackend.resilience.ProviderResilience;
+import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.service.impl.CachingChatService;
+import com.skilltree.skilltreebackend.service.impl.CoalescingChatService;
+import com.skilltree.skilltreebackend.service.impl.FallbackChatService;
+import com.skilltree.skilltreebackend.service.impl.ResilientChatService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Wraps the raw provider services ("fast", "deep") in the decorators the controller talks to.
+ * Order, outermost first: fallback (deep only) -> reply cache -> single-flight -> breaker/retry -> provider.
+ * Session turns use the "...Session" beans, which skip the reply cache and single-flight: their
+ * prompts embed one conversation's history, so they never repeat and must not be stored.
+ */
+@Configuration
+public class ChatPipelineConfig {
+
+    @Value("${chat.resilience.deep-fallback-enabled:true}")
+    private boolean deepFallbackEnabled;
+
+    @Bean("fastChat")
+    public ChatService fastChat(@Qualifier("fast") ChatService fast,
+                                ChatReplyCache cache,
+                                ProviderResilience resilience,
+                                @Qualifier("chatExecutor") ExecutorService chatExecutor,
+                                ChatRateLimiter rateLimiter) {
+        ChatService resilient = new ResilientChatService(fast, AIProvider.GROQ, resilience, chatExecutor, rateLimiter);
+        return new CachingChatService(new CoalescingChatService(resilient, "fast"), "fast", cache);
+    }
+
+    /**
+     * Deep mode without the fast fallback, for callers that must not receive a degraded answer.
+     */
+    @Bean("deepChatPrimary")
+    public ChatService deepChatPrimary(@Qualifier("deep") ChatService deep,
+                                       ChatReplyCache cache,
+                                       ProviderResilience resilience,
+                                       @Qualifier("chatExecutor") ExecutorService chatExecutor,
+                                       ChatRateLimiter rateLimiter) {
+        ChatService resilient = new ResilientChatService(deep, AIProvider.GEMINI, resilience, chatExecutor, rateLimiter);
+        return new CachingChatService(new CoalescingChatService(resilient, "deep"), "deep", cache);
+    }
+
+    @Bean("deepChat")
+    public ChatService deepChat(@Qualifier("deepChatPrimary") ChatService deepPrimary,
+                                @Qualifier("fastChat") ChatService fastChat) {
+        return deepFallbackEnabled ? new FallbackChatService(deepPrimary, fastChat, "deep") : deepPrimary;
+    }
+
+    @Bean("fastChatSession")
+    public ChatService fastChatSession(@Qualifier("fast") ChatService fast,
+                                       ProviderResilience resilience,
+                                       @Qualifier("chatExecutor") ExecutorService chatExecutor,
+                                       ChatRateLimiter rateLimiter) {
+        return new ResilientChatService(fast, AIProvider.GROQ, resilience, chatExecutor, rateLimiter);
+    }
+
+    @Bean("deepChatSession")
+    public ChatService deepChatSession(@Qualifier("deep") ChatService deep,
+                                       @Qualifier("fastChatSession") ChatService fastSession,
+                                       ProviderResilience resilience,
+                                       @Qualifier("chatExecutor") ExecutorService chatExecutor,
+                                       ChatRateLimiter rateLimiter) {
+        ChatService resilient = new ResilientChatService(deep, AIProvider.GEMINI, resilience, chatExecutor, rateLimiter);
+        return deepFallbackEnabled ? new FallbackChatService(resilient, fastSession, "deep") : resilient;
+    }
+}
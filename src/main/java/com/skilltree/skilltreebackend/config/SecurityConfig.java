@@ -1,5 +1,8 @@
 package com.skilltree.skilltreebackend.config;
 
+import com.skilltree.skilltreebackend.security.JwtAuthenticationFilter;
+import com.skilltree.skilltreebackend.security.JwtService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -7,18 +10,24 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.Set;
+
 @Configuration
 public class SecurityConfig {
 
-    // Password encoder (still needed)
+    // Password encoder; only used through PasswordHashingService, which bounds its CPU use
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${password.hashing.cost:10}") int cost) {
+        return new BCryptPasswordEncoder(cost);
     }
 
     // AuthenticationManager is required for login API
@@ -29,7 +38,8 @@ public class SecurityConfig {
 
     // MAIN SECURITY CONFIG
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService,
+                                           @Value("${security.admin-user-ids:}") Set<String> adminUserIds) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -40,16 +50,36 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/users/register",
                                 "/api/users/login",
+                                "/api/users/refresh",
                                 "/api/users/check-email",
                                 "/api/users/username/**",
                                 "/api/chat/**",
                                 "/actuator/**"
                         ).permitAll()
 
+                        // Needs a bearer access token
+                        .requestMatchers("/api/users/me").authenticated()
+
+                        // Bulk user import/export and the full-collection stream: admins only
+                        .requestMatchers("/api/users/import", "/api/users/export", "/api/users/stream").hasRole("ADMIN")
+
+                        // Skill progress: the caller's own via the token; other users' for admins only
+                        .requestMatchers("/api/progress/users/**").hasRole("ADMIN")
+                        .requestMatchers("/api/progress/**").authenticated()
+
+                        // Skill tree edits and primer regeneration: admins only; reads stay public
+                        .requestMatchers(HttpMethod.PUT, "/api/skills").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/skills/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/skills/reload", "/api/skills/primers/refresh").hasRole("ADMIN")
+
                         // Everything else = public (for now)
                         .anyRequest().permitAll()
                 )
 
+                // Stateless bearer tokens, verified locally without a database lookup
+                .addFilterBefore(new JwtAuthenticationFilter(jwtService, adminUserIds), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+
                 // We are NOT using formLogin; only REST APIs
                 .httpBasic(httpBasic -> httpBasic.disable())
                 .formLogin(form -> form.disable());
@@ -1,42 +1,339 @@
 package com.skilltree.skilltreebackend.controller;
 
+import com.skilltree.skilltreebackend.cache.ChatReplyCache;
+import com.skilltree.skilltreebackend.config.AIConfig;
+import com.skilltree.skilltreebackend.dto.ChatBatchRequest;
+import com.skilltree.skilltreebackend.dto.ChatBatchResponse;
+import com.skilltree.skilltreebackend.dto.ChatBatchResult;
+import com.skilltree.skilltreebackend.dto.ChatCacheStats;
 import com.skilltree.skilltreebackend.dto.ChatRequest;
 import com.skilltree.skilltreebackend.dto.ChatResponse;
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.exception.ProviderBusyException;
+import com.skilltree.skilltreebackend.exception.RateLimitExceededException;
+import com.skilltree.skilltreebackend.metrics.ChatMetrics;
+import com.skilltree.skilltreebackend.ratelimit.ChatRateLimiter;
+import com.skilltree.skilltreebackend.service.ChatPrimerService;
 import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.service.ChatSessionService;
+import com.skilltree.skilltreebackend.util.ClientKeys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
 
 @RestController
 @RequestMapping("/api/chat")
 @CrossOrigin
 public class ChatController {
 
+    // Deep-mode answers can take a while; give up on the SSE connection after 3 minutes
+    private static final long STREAM_TIMEOUT_MS = 180_000L;
+
     private final ChatService fastAI;
     private final ChatService deepAI;
+    private final ChatService fastSessionAI;
+    private final ChatService deepSessionAI;
+    private final ExecutorService chatExecutor;
+    private final ChatReplyCache replyCache;
+    private final AIConfig config;
+    private final ChatSessionService sessions;
+    private final ChatRateLimiter rateLimiter;
+    private final ChatMetrics metrics;
+    private final ChatPrimerService primers;
 
     public ChatController(
-            @Qualifier("fast") ChatService fastAI,
-            @Qualifier("deep") ChatService deepAI
+            @Qualifier("fastChat") ChatService fastAI,
+            @Qualifier("deepChat") ChatService deepAI,
+            @Qualifier("fastChatSession") ChatService fastSessionAI,
+            @Qualifier("deepChatSession") ChatService deepSessionAI,
+            @Qualifier("chatExecutor") ExecutorService chatExecutor,
+            ChatReplyCache replyCache,
+            AIConfig config,
+            ChatSessionService sessions,
+            ChatRateLimiter rateLimiter,
+            ChatMetrics metrics,
+            ChatPrimerService primers
     ) {
         this.fastAI = fastAI;
         this.deepAI = deepAI;
+        this.fastSessionAI = fastSessionAI;
+        this.deepSessionAI = deepSessionAI;
+        this.chatExecutor = chatExecutor;
+        this.replyCache = replyCache;
+        this.config = config;
+        this.sessions = sessions;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.primers = primers;
     }
 
+    /**
+     * Answers one message. A provider failure is still returned as a readable reply,
+     * but with 503 so clients and monitoring can tell it from an answer.
+     */
     @PostMapping
-    public ChatResponse chat(@RequestBody ChatRequest req) {
-
+    public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest req, HttpServletRequest request) {
         String node = req.getNode();
         String message = req.getMessage();
         String mode = req.getMode() == null ? "fast" : req.getMode();
+        String sessionId = req.getSessionId();
+        long start = System.nanoTime();
+
+        // A node's opening question is answered from the precomputed primer, free of quota
+        Optional<String> primer = sessionId == null ? primers.find(mode, node, message) : Optional.empty();
+        if (primer.isPresent()) {
+            metrics.request(mode, "chat", "primer", start);
+            return ResponseEntity.ok(new ChatResponse(primer.get()));
+        }
+
+        // With a session, earlier turns are windowed into the prompt sent upstream
+        String owner = ClientKeys.of(request);
+        String prompt = sessionId == null ? message : sessions.buildPrompt(sessionId, owner, node, message);
+
+        // Refunded when closed unless a provider call was made, e.g. on a reply-cache hit
+        ChatRateLimiter.Charge charge = rateLimiter.acquire(request, req, prompt);
 
         String reply;
 
-        if (mode.equals("deep")) {
-            reply = deepAI.chat(node, message);
-        } else {
-            reply = fastAI.chat(node, message);
+        try (ChatRateLimiter.Charge bound = charge.bind()) {
+            reply = serviceFor(mode, sessionId).chat(node, prompt);
+        } catch (AIProviderException e) {
+            metrics.request(mode, "chat", "provider_error", start);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ChatResponse(e.getMessage(), sessionId));
+        } catch (ProviderBusyException | RateLimitExceededException e) {
+            // GlobalExceptionHandler answers 503 / 429 with Retry-After
+            metrics.request(mode, "chat", outcomeOf(e), start);
+            throw e;
+        }
+
+        // Stateless calls stay stateless; only opted-in sessions keep history
+        if (sessionId != null) sessions.recordTurn(sessionId, owner, node, mode, message, reply);
+        metrics.request(mode, "chat", "success", start);
+        return ResponseEntity.ok(new ChatResponse(reply, sessionId));
+    }
+
+    /**
+     * Starts a multi-turn conversation. Clients that want history pass the returned
+     * sessionId on later /chat or /stream calls; calls without one keep no state.
+     */
+    @PostMapping("/sessions")
+    public ChatResponse openSession(HttpServletRequest request) {
+        return new ChatResponse(null, sessions.open(ClientKeys.of(request)));
+    }
+
+    @GetMapping("/cache/stats")
+    public ChatCacheStats cacheStats() {
+        return replyCache.stats();
+    }
+
+    /**
+     * Streams the reply as Server-Sent Events: one "delta" event per chunk, then "done".
+     * Each stream runs on a virtual thread, so an open connection does not pin a platform thread.
+     */
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestBody ChatRequest req, HttpServletRequest request) {
+        String node = req.getNode();
+        String message = req.getMessage();
+        String mode = req.getMode() == null ? "fast" : req.getMode();
+        String sessionId = req.getSessionId();
+        long start = System.nanoTime();
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        Optional<String> primer = sessionId == null ? primers.find(mode, node, message) : Optional.empty();
+        if (primer.isPresent()) {
+            chatExecutor.execute(() -> {
+                try {
+                    send(emitter, "delta", new ChatResponse(primer.get()));
+                    send(emitter, "done", new ChatResponse(""));
+                    emitter.complete();
+                    metrics.request(mode, "stream", "primer", start);
+                } catch (UncheckedIOException e) {
+                    emitter.completeWithError(e.getCause());
+                }
+            });
+            return emitter;
+        }
+
+        String owner = ClientKeys.of(request);
+        String prompt = sessionId == null ? message : sessions.buildPrompt(sessionId, owner, node, message);
+
+        ChatRateLimiter.Charge charge = rateLimiter.acquire(request, req, prompt);
+        ChatService ai = serviceFor(mode, sessionId);
+
+        chatExecutor.execute(() -> {
+            try {
+                StringBuilder reply = new StringBuilder();
+                try (ChatRateLimiter.Charge bound = charge.bind()) {
+                    ai.stream(node, prompt, delta -> {
+                        reply.append(delta);
+                        send(emitter, "delta", new ChatResponse(delta));
+                    });
+                }
+                if (sessionId != null) sessions.recordTurn(sessionId, owner, node, mode, message, reply.toString());
+                send(emitter, "done", new ChatResponse("", sessionId));
+                emitter.complete();
+                metrics.request(mode, "stream", "success", start);
+            } catch (UncheckedIOException e) {
+                // Client went away; closing the upstream response already cancelled the call
+                emitter.completeWithError(e.getCause());
+                metrics.request(mode, "stream", "disconnected", start);
+            } catch (Exception e) {
+                metrics.request(mode, "stream", outcomeOf(e), start);
+                String text = e instanceof AIProviderException || e instanceof ProviderBusyException
+                        || e instanceof RateLimitExceededException
+                        ? e.getMessage()
+                        : "Error streaming AI reply: " + e.getMessage();
+                try {
+                    send(emitter, "error", new ChatResponse(text));
+                    emitter.complete();
+                } catch (UncheckedIOException ignored) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Answers many (node, message, mode) items concurrently and returns them in request order.
+     * Items fan out on virtual threads, at most {@code chat.batch.max-parallelism} at a time.
+     */
+    @PostMapping("/batch")
+    public ChatBatchResponse batch(@RequestBody ChatBatchRequest req, HttpServletRequest request) {
+        List<CompletableFuture<ChatBatchResult>> futures = fanOut(req, request);
+        List<ChatBatchResult> results = futures.stream().map(CompletableFuture::join).toList();
+        return new ChatBatchResponse(results);
+    }
+
+    /**
+     * Same as {@link #batch} but emits one "result" event per item as soon as it completes.
+     */
+    @PostMapping(value = "/batch/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter batchStream(@RequestBody ChatBatchRequest req, HttpServletRequest request) {
+        List<CompletableFuture<ChatBatchResult>> futures = fanOut(req, request);
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        // SseEmitter is not safe for concurrent sends; a lock (not synchronized) keeps virtual threads unpinned
+        ReentrantLock sendLock = new ReentrantLock();
+
+        CompletableFuture<?>[] sent = futures.stream()
+                .map(future -> future.thenAccept(result -> {
+                    sendLock.lock();
+                    try {
+                        send(emitter, "result", result);
+                    } finally {
+                        sendLock.unlock();
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture.allOf(sent).whenComplete((ignored, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                send(emitter, "done", new ChatResponse(""));
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                emitter.completeWithError(e.getCause());
+            }
+        });
+
+        return emitter;
+    }
+
+    private List<CompletableFuture<ChatBatchResult>> fanOut(ChatBatchRequest req, HttpServletRequest request) {
+        List<ChatRequest> items = req.getItems();
+        if (items == null || items.isEmpty())
+            throw new IllegalArgumentException("Batch must contain at least one item.");
+        if (items.size() > config.getBatchMaxItems())
+            throw new IllegalArgumentException("Batch may contain at most " + config.getBatchMaxItems() + " items.");
+        List<ChatRateLimiter.Charge> charges = rateLimiter.acquire(request, items);
+
+        // One permit pool per batch so a single large batch cannot take every provider slot
+        Semaphore permits = new Semaphore(config.getBatchMaxParallelism());
+        Executor limited = task -> chatExecutor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+
+        List<CompletableFuture<ChatBatchResult>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            ChatRequest item = items.get(i);
+            String mode = item.getMode() == null ? "fast" : item.getMode();
+
+            ChatService ai = serviceFor(mode);
+            ChatRateLimiter.Charge charge = charges.get(i);
+
+            long start = System.nanoTime();
+            futures.add(CompletableFuture
+                    .supplyAsync(() -> {
+                        // Bound on the worker thread that makes the call, so cache hits are refunded
+                        try (ChatRateLimiter.Charge bound = charge.bind()) {
+                            return ai.chat(item.getNode(), item.getMessage());
+                        }
+                    }, limited)
+                    .handle((reply, error) -> {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        metrics.request(mode, "batch", cause == null ? "success" : outcomeOf(cause), start);
+                        String text = cause == null ? reply
+                                : cause instanceof AIProviderException || cause instanceof ProviderBusyException
+                                || cause instanceof RateLimitExceededException
+                                ? cause.getMessage()
+                                : "Error calling AI: " + cause.getMessage();
+                        return new ChatBatchResult(index, item.getNode(), mode, text, cause == null);
+                    }));
         }
+        return futures;
+    }
+
+    private static String outcomeOf(Throwable failure) {
+        if (failure instanceof AIProviderException) return "provider_error";
+        if (failure instanceof ProviderBusyException) return "busy";
+        if (failure instanceof RateLimitExceededException) return "rate_limited";
+        return "error";
+    }
 
-        return new ChatResponse(reply);
+    private ChatService serviceFor(String mode) {
+        return mode.equals("deep") ? deepAI : fastAI;
+    }
+
+    // Session prompts are unique per conversation, so they bypass the reply cache and single-flight
+    private ChatService serviceFor(String mode, String sessionId) {
+        if (sessionId == null) return serviceFor(mode);
+        return mode.equals("deep") ? deepSessionAI : fastSessionAI;
+    }
+
+    private static void send(SseEmitter emitter, String event, Object payload) {
+        try {
+            // Wrap in JSON so leading whitespace of a token survives SSE framing
+            emitter.send(SseEmitter.event().name(event).data(payload, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -0,0 +1,87 @@
+package com.skilltree.skilltreebackend.controller;
+
+import com.skilltree.skilltreebackend.model.SkillProgress;
+import com.skilltree.skilltreebackend.response.ApiResponse;
+import com.skilltree.skilltreebackend.security.AuthenticatedUser;
+import com.skilltree.skilltreebackend.service.SkillProgressService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for per-user skill progress.
+ * Every route acts on the caller's own progress, identified by the bearer token; admins can
+ * read other users' progress under /users/{userId}.
+ * Progress events are accepted into a write-behind buffer, hence 202 rather than 200.
+ */
+@RestController
+@RequestMapping("/api/progress")
+@CrossOrigin(origins = {"http://localhost:5500", "http://localhost:3000", "http://localhost:8080"})
+public class SkillProgressController {
+
+    private final SkillProgressService progressService;
+
+    public SkillProgressController(SkillProgressService progressService) {
+        this.progressService = progressService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SkillProgress>>> getProgress(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return progress(principal.id());
+    }
+
+    @GetMapping("/unlockable")
+    public ResponseEntity<ApiResponse<List<String>>> getUnlockable(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return unlockable(principal.id());
+    }
+
+    @PostMapping("/{nodeId}/visit")
+    public ResponseEntity<ApiResponse<Void>> visit(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                   @PathVariable String nodeId) {
+        progressService.recordVisit(principal.id(), nodeId);
+        return accepted("Visit recorded");
+    }
+
+    @PostMapping("/{nodeId}/attempt")
+    public ResponseEntity<ApiResponse<Void>> attempt(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                     @PathVariable String nodeId) {
+        progressService.recordAttempt(principal.id(), nodeId);
+        return accepted("Attempt recorded");
+    }
+
+    @PostMapping("/{nodeId}/complete")
+    public ResponseEntity<ApiResponse<Void>> complete(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                      @PathVariable String nodeId) {
+        progressService.markCompleted(principal.id(), nodeId);
+        return accepted("Completion recorded");
+    }
+
+    /************************************************
+     * Admin: any user's progress (read-only)
+     ************************************************/
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<ApiResponse<List<SkillProgress>>> getUserProgress(@PathVariable String userId) {
+        return progress(userId);
+    }
+
+    @GetMapping("/users/{userId}/unlockable")
+    public ResponseEntity<ApiResponse<List<String>>> getUserUnlockable(@PathVariable String userId) {
+        return unlockable(userId);
+    }
+
+    private ResponseEntity<ApiResponse<List<SkillProgress>>> progress(String userId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Progress fetched successfully", progressService.getProgress(userId)));
+    }
+
+    private ResponseEntity<ApiResponse<List<String>>> unlockable(String userId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Unlockable skills computed", progressService.getUnlockable(userId)));
+    }
+
+    private static ResponseEntity<ApiResponse<Void>> accepted(String message) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse<>(true, message, null));
+    }
+}
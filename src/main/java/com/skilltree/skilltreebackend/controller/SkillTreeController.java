@@ -0,0 +1,82 @@
+package com.skilltree.skilltreebackend.controller;
+
+import com.skilltree.skilltreebackend.model.SkillNode;
+import com.skilltree.skilltreebackend.response.ApiResponse;
+import com.skilltree.skilltreebackend.service.ChatPrimerService;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for the skill tree. Errors are mapped by GlobalExceptionHandler.
+ * Reads are public; PUT, DELETE, /reload and /primers/refresh need an admin access token (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/skills")
+@CrossOrigin(origins = {"http://localhost:5500", "http://localhost:3000", "http://localhost:8080"})
+public class SkillTreeController {
+
+    private final SkillTreeService skillTreeService;
+    private final ChatPrimerService chatPrimerService;
+
+    public SkillTreeController(SkillTreeService skillTreeService, ChatPrimerService chatPrimerService) {
+        this.skillTreeService = skillTreeService;
+        this.chatPrimerService = chatPrimerService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SkillNode>>> getTree() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Skill tree fetched successfully", skillTreeService.getTree()));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<SkillNode>> getNode(@PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Skill node fetched successfully", skillTreeService.getNode(id)));
+    }
+
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<ApiResponse<List<String>>> getAncestors(@PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Ancestors fetched successfully", skillTreeService.getAncestors(id)));
+    }
+
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<ApiResponse<List<String>>> getDescendants(@PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Descendants fetched successfully", skillTreeService.getDescendants(id)));
+    }
+
+    @PostMapping("/unlockable")
+    public ResponseEntity<ApiResponse<List<String>>> getUnlockable(@RequestBody List<String> completed) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Unlockable skills computed", skillTreeService.getUnlockable(completed)));
+    }
+
+    @PutMapping
+    public ResponseEntity<ApiResponse<SkillNode>> saveNode(@Valid @RequestBody SkillNode node) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Skill node saved successfully", skillTreeService.saveNode(node)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteNode(@PathVariable String id) {
+        skillTreeService.deleteNode(id);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Skill node deleted successfully", null));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<ApiResponse<Integer>> reload() {
+        skillTreeService.reload();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Skill tree reloaded", skillTreeService.getTree().size()));
+    }
+
+    // Regenerates chat primers in the background, e.g. right after /reload changed node content
+    @PostMapping("/primers/refresh")
+    public ResponseEntity<ApiResponse<Void>> refreshPrimers() {
+        if (!chatPrimerService.refresh()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse<>(false, "Chat primers are disabled or already being generated", null));
+        }
+        return ResponseEntity.accepted().body(new ApiResponse<>(true, "Chat primer generation started", null));
+    }
+}
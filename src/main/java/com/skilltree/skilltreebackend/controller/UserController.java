@@ -1,17 +1,47 @@
 package com.skilltree.skilltreebackend.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.skilltree.skilltreebackend.dto.AuthTokens;
+import com.skilltree.skilltreebackend.dto.ImportReport;
+import com.skilltree.skilltreebackend.dto.LoginResponse;
+import com.skilltree.skilltreebackend.dto.RefreshRequest;
+import com.skilltree.skilltreebackend.dto.UserAvailability;
+import com.skilltree.skilltreebackend.dto.UserPage;
+import com.skilltree.skilltreebackend.dto.UserSuggestion;
 import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.exception.DuplicateUserException;
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
 import com.skilltree.skilltreebackend.response.ApiResponse;
+import com.skilltree.skilltreebackend.search.UserSearchIndex;
+import com.skilltree.skilltreebackend.security.AuthenticatedUser;
+import com.skilltree.skilltreebackend.security.JwtService;
+import com.skilltree.skilltreebackend.service.ReactiveUserService;
+import com.skilltree.skilltreebackend.service.UserImportService;
 import com.skilltree.skilltreebackend.service.UserService;
+import com.skilltree.skilltreebackend.util.Csv;
+import com.skilltree.skilltreebackend.util.PasswordPolicy;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Optional;
 
 /**
  * REST controller for managing User operations.
@@ -21,14 +51,26 @@ import java.util.regex.Pattern;
 @CrossOrigin(origins = {"http://localhost:5500", "http://localhost:3000", "http://localhost:8080"})
 public class UserController {
 
-    // Password must contain at least 3 letters, 2 numbers, and 1 special character
-    private static final Pattern PASSWORD_LETTERS = Pattern.compile("[A-Za-z].*[A-Za-z].*[A-Za-z]");
-    private static final Pattern PASSWORD_NUMBERS = Pattern.compile(".*\\d.*\\d.*");
-    private static final Pattern PASSWORD_SPECIAL = Pattern.compile(".*[@$!%*#?&].*");
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ReactiveUserService reactiveUserService;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
     @GetMapping("/check-email")
     public ResponseEntity<ApiResponse<Boolean>> checkEmail(@RequestParam String email) {
         try {
@@ -40,135 +82,182 @@ public class UserController {
         }
     }
 
+    /**
+     * Lightweight signup check: answers from the in-memory filter when possible and never loads a User.
+     */
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<ApiResponse<UserAvailability>>> checkAvailability(@RequestParam(required = false) String username,
+                                                                                 @RequestParam(required = false) String email) {
+        Mono<Optional<Boolean>> usernameAvailable = username == null ? Mono.just(Optional.empty())
+                : reactiveUserService.existsByUsername(username).map(exists -> Optional.of(!exists));
+        Mono<Optional<Boolean>> emailAvailable = email == null ? Mono.just(Optional.empty())
+                : reactiveUserService.existsByEmail(email).map(exists -> Optional.of(!exists));
+        return Mono.zip(usernameAvailable, emailAvailable)
+                .map(both -> ResponseEntity.ok(new ApiResponse<>(true, "Availability check successful",
+                        new UserAvailability(both.getT1().orElse(null), both.getT2().orElse(null)))));
+    }
+
+    /**
+     * Registers a user with one insert; duplicates surface from the unique indexes as
+     * DuplicateUserException (409, data = "email" or "username").
+     */
     @PostMapping
     public ResponseEntity<ApiResponse<User>> createUser(@Valid @RequestBody User user) {
-        try {
-            // Basic field validation
-            if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Username is required", null));
-            }
-            
-            if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Email is required", null));
-            }
-            
-            if (user.getPassword() == null || user.getPasswordConfirm() == null) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Both password and confirmation are required", null));
-            }
+        // Basic field validation
+        if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, "Username is required", null));
+        }
 
-            // Password match validation
-            if (!user.isPasswordMatching()) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Passwords do not match", null));
-            }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, "Email is required", null));
+        }
 
-            // Password complexity validation
-            String password = user.getPassword();
-            if (password.length() < 8) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Password must be at least 8 characters long", null));
-            }
+        if (user.getPassword() == null || user.getPasswordConfirm() == null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, "Both password and confirmation are required", null));
+        }
 
-            // Build comprehensive password validation message
-            StringBuilder errors = new StringBuilder();
-            
-            // Check for 3 letters
-            if (!PASSWORD_LETTERS.matcher(password).find()) {
-                errors.append("3 letters, ");
-            }
-            
-            // Check for 2 numbers
-            if (!PASSWORD_NUMBERS.matcher(password).find()) {
-                errors.append("2 numbers, ");
-            }
-            
-            // Check for special character
-            if (!PASSWORD_SPECIAL.matcher(password).find()) {
-                errors.append("1 special character (@$!%*#?&), ");
-            }
+        // Password match validation
+        if (!user.isPasswordMatching()) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, "Passwords do not match", null));
+        }
 
-            // If any validation failed, return the error message
-            if (errors.length() > 0) {
-                errors.insert(0, "Password must contain: ");
-                errors.setLength(errors.length() - 2); // Remove last comma and space
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, errors.toString(), null));
-            }
+        // Password complexity validation (single pass)
+        String passwordError = PasswordPolicy.violations(user.getPassword());
+        if (passwordError != null) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, passwordError, null));
+        }
 
-            try {
-                // Email validation and normalization
-                user.setEmail(user.getEmail().toLowerCase().trim());
-                if (userService.existsByEmail(user.getEmail())) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(new ApiResponse<>(false, "Email already exists", null));
-                }
-
-                // Check if username exists
-                if (userService.findByUsername(user.getUsername()) != null) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(new ApiResponse<>(false, "Username already exists", null));
-                }
-
-                // Set timestamps
-                LocalDateTime now = LocalDateTime.now();
-                user.setCreatedAt(now);
-                user.setLastLogin(now);
-            
-                // Create the user and return response
-                User createdUser = userService.createUser(user);
-                if (createdUser != null) {
-                    createdUser.setPassword(null); // Hide password in response
-                    return ResponseEntity.ok(new ApiResponse<>(true, "User created successfully", createdUser));
-                } else {
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(new ApiResponse<>(false, "Failed to create user", null));
-                }
-            } catch (Exception e) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ApiResponse<>(false, "Error creating user: " + e.getMessage(), null));
-            }
-            
-        } catch (Exception e) {
-            // Log the full error for debugging
-            e.printStackTrace();
-            
-            String message = e.getMessage();
-            if (message != null && message.contains("duplicate key")) {
-                if (message.contains("username")) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                            .body(new ApiResponse<>(false, "Username already exists", null));
-                } else if (message.contains("email")) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                            .body(new ApiResponse<>(false, "Email already exists", null));
-                }
-            }
-            
-            // Return a more specific error message
-            String errorMessage = message != null ? message : "An unexpected error occurred";
+        // Email normalization
+        user.setEmail(user.getEmail().toLowerCase().trim());
+
+        try {
+            User createdUser = userService.createUser(user);
+            createdUser.setPassword(null); // Hide password in response
+            return ResponseEntity.ok(new ApiResponse<>(true, "User created successfully", createdUser));
+        } catch (DuplicateUserException | HashingCapacityException e) {
+            throw e;   // 409 / 503 via GlobalExceptionHandler
+        } catch (RuntimeException e) {
+            log.warn("Failed to create user: {}", e.getMessage());
+            String errorMessage = e.getMessage() != null ? e.getMessage() : "An unexpected error occurred";
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, "Failed to create user: " + errorMessage, null));
         }
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<User>>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        users.forEach(user -> user.setPassword(null));
-        return ResponseEntity.ok(new ApiResponse<>(true, "Users retrieved successfully", users));
+    public Mono<ResponseEntity<ApiResponse<UserPage>>> getAllUsers(@RequestParam(required = false) String after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return reactiveUserService.getUsersPage(after, limit)
+                .map(page -> ResponseEntity.ok(new ApiResponse<>(true, "Users retrieved successfully", page)));
+    }
+
+    /**
+     * Autocomplete over usernames and full names, answered from the in-memory prefix index.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<UserSuggestion>>> searchUsers(@RequestParam String prefix,
+                                                                         @RequestParam(defaultValue = "10") int limit) {
+        List<UserSuggestion> matches = searchIndex.search(prefix, limit);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Search successful", matches));
+    }
+
+    /**
+     * Streams every user as newline-delimited JSON while the Mongo cursor advances.
+     * Admins only, like /export (see SecurityConfig).
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        ObjectWriter writer = objectMapper.writerFor(User.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            try {
+                userService.forEachUser(user -> {
+                    try {
+                        writer.writeValue(out, user);
+                        out.write('\n');
+                        if (++written[0] % 100 == 0) out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();   // client disconnected; closing the stream released the cursor
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Bulk-creates users from CSV (header: username,email,password,fullName[,dateOfBirth])
+     * or NDJSON (one user object per line). Responds with a result for every input line.
+     * Admins only (security.admin-user-ids), as is /export.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<ImportReport>> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                 Reader body) throws IOException {
+        ImportReport report = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? userImportService.importNdjson(body)
+                : userImportService.importCsv(body);
+        String message = report.getCreated() + " of " + report.getTotal() + " users created";
+        return ResponseEntity.ok(new ApiResponse<>(report.getFailed() == 0, message, report));
+    }
+
+    /**
+     * Streams every user as CSV or NDJSON (same shape as /stream), never holding the full list.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        if (!"csv".equalsIgnoreCase(format))
+            return streamUsers();
+
+        StreamingResponseBody body = out -> {
+            out.write("id,username,email,fullName,dateOfBirth,createdAt,lastLogin,active\n".getBytes(StandardCharsets.UTF_8));
+            StringBuilder line = new StringBuilder(256);
+            int[] written = {0};
+            try {
+                userService.forEachUser(user -> {
+                    line.setLength(0);
+                    Csv.appendField(line, user.getId());
+                    line.append(',');
+                    Csv.appendField(line, user.getUsername());
+                    line.append(',');
+                    Csv.appendField(line, user.getEmail());
+                    line.append(',');
+                    Csv.appendField(line, user.getFullName());
+                    line.append(',');
+                    Csv.appendField(line, user.getDateOfBirth());
+                    line.append(',');
+                    Csv.appendField(line, user.getCreatedAt());
+                    line.append(',');
+                    Csv.appendField(line, user.getLastLogin());
+                    line.append(',').append(user.isActive()).append('\n');
+                    try {
+                        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                        if (++written[0] % 100 == 0) out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<User>> getUserById(@PathVariable String id) {
-        User user = userService.getUserById(id);
-        if (user == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "User not found", null));
-        }
-        user.setPassword(null);
-        return ResponseEntity.ok(new ApiResponse<>(true, "User retrieved successfully", user));
+    public Mono<ResponseEntity<ApiResponse<User>>> getUserById(@PathVariable String id) {
+        return found(reactiveUserService.getUserById(id), "User not found");
     }
 
     @PutMapping("/{id}")
@@ -194,42 +283,62 @@ public class UserController {
     }
 
     @GetMapping("/email/{email}")
-    public ResponseEntity<ApiResponse<User>> getUserByEmail(@PathVariable String email) {
-        User user = userService.findByEmail(email);
+    public Mono<ResponseEntity<ApiResponse<User>>> getUserByEmail(@PathVariable String email) {
+        return found(reactiveUserService.findByEmail(email), "User not found with email: " + email);
+    }
+
+    @GetMapping("/username/{username}")
+    public Mono<ResponseEntity<ApiResponse<User>>> getUserByUsername(@PathVariable String username) {
+        return found(reactiveUserService.findByUsername(username), "User not found with username: " + username);
+    }
+
+    private static Mono<ResponseEntity<ApiResponse<User>>> found(Mono<User> lookup, String notFoundMessage) {
+        return lookup
+                .map(user -> {
+                    user.setPassword(null);
+                    return ResponseEntity.ok(new ApiResponse<>(true, "User retrieved successfully", user));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, notFoundMessage, null)));
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<LoginResponse>>> loginUser(@RequestBody User loginUser) {
+        return reactiveUserService.login(loginUser.getEmail(), loginUser.getPassword())
+                // issuing records the refresh token in Mongo, which must not block a driver thread
+                .publishOn(Schedulers.boundedElastic())
+                .map(user -> {
+                    user.setPassword(null);
+                    LoginResponse body = new LoginResponse(user, jwtService.issue(user));
+                    return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", body));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(new ApiResponse<>(false, "Invalid credentials", null)))
+                // a busy hashing pool stays a 503, not a credentials problem
+                .onErrorResume(e -> !(e instanceof HashingCapacityException), e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(new ApiResponse<>(false, "Login failed: " + e.getMessage(), null))));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<AuthTokens>> refreshTokens(@RequestBody RefreshRequest request) {
+        String userId = jwtService.redeemRefreshToken(request.getRefreshToken());
+        User user = userId == null ? null : userService.getUserById(userId);
         if (user == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "User not found with email: " + email, null));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse<>(false, "Invalid or expired refresh token", null));
         }
-        user.setPassword(null);
-        return ResponseEntity.ok(new ApiResponse<>(true, "User retrieved successfully", user));
+        return ResponseEntity.ok(new ApiResponse<>(true, "Tokens refreshed", jwtService.issue(user)));
     }
 
-    @GetMapping("/username/{username}")
-    public ResponseEntity<ApiResponse<User>> getUserByUsername(@PathVariable String username) {
-        User user = userService.findByUsername(username);
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<User>> getCurrentUser(@AuthenticationPrincipal AuthenticatedUser principal) {
+        User user = userService.getUserById(principal.id());
         if (user == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(new ApiResponse<>(false, "User not found with username: " + username, null));
+                    .body(new ApiResponse<>(false, "User not found", null));
         }
         user.setPassword(null);
         return ResponseEntity.ok(new ApiResponse<>(true, "User retrieved successfully", user));
     }
-
-    @PostMapping("/login")
-    public ResponseEntity<ApiResponse<User>> loginUser(@RequestBody User loginUser) {
-        try {
-            User user = userService.login(loginUser.getEmail(), loginUser.getPassword());
-            if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(new ApiResponse<>(false, "Invalid credentials", null));
-            }
-            user.setPassword(null);
-            user.setLastLogin(LocalDateTime.now());
-            userService.updateUser(user.getId(), user);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", user));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ApiResponse<>(false, "Login failed: " + e.getMessage(), null));
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthTokens {
+
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+    private long expiresIn;   // access token lifetime, seconds
+}
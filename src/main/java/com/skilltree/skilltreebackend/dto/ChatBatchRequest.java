@@ -0,0 +1,13 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatBatchRequest {
+
+    private List<ChatRequest> items;
+}
@@ -0,0 +1,16 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatBatchResult {
+
+    private int index;     // position of the item in the request
+    private String node;
+    private String mode;
+    private String reply;
+    private boolean success;
+}
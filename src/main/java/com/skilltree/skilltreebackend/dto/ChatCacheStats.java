@@ -0,0 +1,17 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatCacheStats {
+
+    private long memoryHits;
+    private long diskHits;
+    private long misses;
+    private long writes;
+    private long memoryEntries;
+    private double hitRatio;
+}
@@ -3,6 +3,7 @@ public class ChatRequest {
     private String node;
     private String message;
     private String mode; // "fast" or "deep"
+    private String sessionId; // optional, enables multi-turn context
 
     public String getNode() {
         return node;
@@ -24,6 +25,13 @@ public class ChatRequest {
     public void setMode(String mode) {
         this.mode = mode;
     }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
 }
 
 
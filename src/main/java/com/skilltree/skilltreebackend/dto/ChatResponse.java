@@ -2,12 +2,22 @@ package com.skilltree.skilltreebackend.dto;
 
 public class ChatResponse {
     private String reply;
+    private String sessionId;
 
     public ChatResponse(String reply) {
         this.reply = reply;
     }
 
+    public ChatResponse(String reply, String sessionId) {
+        this.reply = reply;
+        this.sessionId = sessionId;
+    }
+
     public String getReply() {
         return reply;
     }
+
+    public String getSessionId() {
+        return sessionId;
+    }
 }
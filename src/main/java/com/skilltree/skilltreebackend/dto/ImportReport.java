@@ -0,0 +1,16 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+
+    private long total;
+    private long created;
+    private long failed;
+    private List<ImportRowResult> rows;
+}
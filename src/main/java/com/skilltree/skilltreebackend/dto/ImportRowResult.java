@@ -0,0 +1,15 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResult {
+
+    private long line;          // 1-based line in the uploaded file
+    private String username;
+    private String status;      // CREATED | INVALID | DUPLICATE | FAILED
+    private String id;          // set when CREATED
+    private String error;       // set otherwise
+}
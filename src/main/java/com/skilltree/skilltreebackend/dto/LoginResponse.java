@@ -0,0 +1,13 @@
+package com.skilltree.skilltreebackend.dto;
+
+import com.skilltree.skilltreebackend.model.User;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+
+    private User user;
+    private AuthTokens tokens;
+}
@@ -0,0 +1,11 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshRequest {
+
+    private String refreshToken;
+}
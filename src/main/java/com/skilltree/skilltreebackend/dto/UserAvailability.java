@@ -0,0 +1,13 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAvailability {
+
+    // null when the value was not part of the request
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
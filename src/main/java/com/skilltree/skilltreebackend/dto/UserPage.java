@@ -0,0 +1,15 @@
+package com.skilltree.skilltreebackend.dto;
+
+import com.skilltree.skilltreebackend.model.User;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+
+    private List<User> users;
+    private String nextCursor;   // pass as ?after= for the next page; null on the last page
+}
@@ -0,0 +1,13 @@
+package com.skilltree.skilltreebackend.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSuggestion {
+
+    private String id;
+    private String username;
+    private String fullName;
+}
@@ -0,0 +1,50 @@
+package com.skilltree.skilltreebackend.exception;
+
+import com.skilltree.skilltreebackend.config.AIProvider;
+
+import java.io.IOException;
+
+/**
+ * Raised when an AI provider call cannot produce a usable reply.
+ * The message is safe to show to the user as the chat reply.
+ */
+public class AIProviderException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AIProvider provider;
+    private final int status;
+
+    public AIProviderException(AIProvider provider, String message) {
+        this(provider, message, null, 0);
+    }
+
+    public AIProviderException(AIProvider provider, String message, Throwable cause) {
+        this(provider, message, cause, 0);
+    }
+
+    public AIProviderException(AIProvider provider, String message, Throwable cause, int status) {
+        super(message, cause);
+        this.provider = provider;
+        this.status = status;
+    }
+
+    public AIProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * @return Upstream HTTP status, or 0 if the provider was never reached
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Transport errors, throttling (429) and server errors (5xx) may succeed on another attempt;
+     * configuration problems and unusable bodies will not.
+     */
+    public boolean isRetryable() {
+        return status == 429 || status >= 500 || getCause() instanceof IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package com.skilltree.skilltreebackend.exception;
+
+/**
+ * Thrown when a write hits the unique username or email index.
+ * Mapped to 409 with the offending field as the response data.
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String field;
+
+    public DuplicateUserException(String field) {
+        super(field == null ? "User already exists"
+                : Character.toUpperCase(field.charAt(0)) + field.substring(1) + " already exists");
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,21 @@
+package com.skilltree.skilltreebackend.exception;
+
+/**
+ * Thrown when the password-hashing executor is saturated (queue full or wait timed out).
+ * Mapped to 503 with a Retry-After header so clients back off instead of piling on.
+ */
+public class HashingCapacityException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public HashingCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.skilltree.skilltreebackend.exception;
+
+import com.skilltree.skilltreebackend.config.AIProvider;
+
+/**
+ * Thrown by AITransport when no local concurrency slot for a provider frees up in time.
+ * This is our own overload, not a provider failure: it is never retried, leaves the circuit
+ * breaker untouched, does not trigger a fallback mode and is mapped to 503 with a Retry-After header.
+ */
+public class ProviderBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AIProvider provider;
+    private final long retryAfterSeconds;
+
+    public ProviderBusyException(AIProvider provider, String message, long retryAfterSeconds) {
+        super(message);
+        this.provider = provider;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public AIProvider getProvider() {
+        return provider;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
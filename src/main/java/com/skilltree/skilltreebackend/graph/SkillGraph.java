@@ -0,0 +1,219 @@
+package com.skilltree.skilltreebackend.graph;
+
+import com.skilltree.skilltreebackend.model.SkillNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, compact index of the skill tree.
+ * Node ids are interned to dense ints once; prerequisite and child edges are plain
+ * int[] adjacency arrays, so traversals touch no maps and allocate only their result.
+ * A new snapshot is built for every edit and swapped in atomically by the service.
+ * Nodes are copied on the way in and on the way out, so neither the caller that built the
+ * snapshot nor one that reads it can change the shared instances behind the index.
+ */
+public final class SkillGraph {
+
+    private final String[] ids;
+    private final Map<String, Integer> index;
+    private final Map<String, Integer> titles;
+    private final SkillNode[] nodes;
+    private final int[][] prerequisites;
+    private final int[][] children;
+    private final List<SkillNode> topologicalOrder;
+
+    private SkillGraph(String[] ids, Map<String, Integer> index, Map<String, Integer> titles, SkillNode[] nodes,
+                       int[][] prerequisites, int[][] children, List<SkillNode> topologicalOrder) {
+        this.ids = ids;
+        this.index = index;
+        this.titles = titles;
+        this.nodes = nodes;
+        this.prerequisites = prerequisites;
+        this.children = children;
+        this.topologicalOrder = topologicalOrder;
+    }
+
+    public static SkillGraph empty() {
+        return build(List.of());
+    }
+
+    /**
+     * Builds a snapshot and validates it.
+     * @throws IllegalArgumentException on unknown prerequisite ids or prerequisite cycles
+     */
+    public static SkillGraph build(Collection<SkillNode> source) {
+        int n = source.size();
+        String[] ids = new String[n];
+        SkillNode[] nodes = new SkillNode[n];
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        Map<String, Integer> titles = new HashMap<>(n * 2);
+
+        int next = 0;
+        for (SkillNode node : source) {
+            if (index.putIfAbsent(node.getId(), next) != null)
+                throw new IllegalArgumentException("Duplicate skill node id: " + node.getId());
+            ids[next] = node.getId();
+            nodes[next] = copyOf(node);
+            if (node.getTitle() != null) titles.putIfAbsent(node.getTitle().toLowerCase(Locale.ROOT), next);
+            next++;
+        }
+
+        int[][] prerequisites = new int[n][];
+        int[] childCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            List<String> prereqIds = nodes[i].getPrerequisites() == null ? List.of() : nodes[i].getPrerequisites();
+            int[] edges = new int[prereqIds.size()];
+            for (int e = 0; e < edges.length; e++) {
+                Integer target = index.get(prereqIds.get(e));
+                if (target == null)
+                    throw new IllegalArgumentException("Skill node '" + ids[i] + "' has unknown prerequisite '" + prereqIds.get(e) + "'");
+                edges[e] = target;
+                childCounts[target]++;
+            }
+            prerequisites[i] = edges;
+        }
+
+        int[][] children = new int[n][];
+        for (int i = 0; i < n; i++) children[i] = new int[childCounts[i]];
+        int[] fill = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int p : prerequisites[i]) children[p][fill[p]++] = i;
+        }
+
+        // Kahn's algorithm: roots first, every node after all of its prerequisites
+        int[] remaining = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = prerequisites[i].length;
+            if (remaining[i] == 0) queue[tail++] = i;
+        }
+        List<SkillNode> order = new ArrayList<>(n);
+        while (head < tail) {
+            int current = queue[head++];
+            order.add(nodes[current]);
+            for (int child : children[current]) {
+                if (--remaining[child] == 0) queue[tail++] = child;
+            }
+        }
+        if (order.size() != n)
+            throw new IllegalArgumentException("Skill tree prerequisites contain a cycle");
+
+        return new SkillGraph(ids, Collections.unmodifiableMap(index), Collections.unmodifiableMap(titles), nodes,
+                prerequisites, children, Collections.unmodifiableList(order));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public SkillNode get(String id) {
+        Integer i = index.get(id);
+        return i == null ? null : copyOf(nodes[i]);
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Resolves a node the way chat requests name it, by id or by (case-insensitive) title.
+     * @return The node's category, or null for unknown nodes and nodes without one
+     */
+    public String categoryOf(String idOrTitle) {
+        if (idOrTitle == null) return null;
+        Integer i = index.get(idOrTitle);
+        if (i == null) i = titles.get(idOrTitle.trim().toLowerCase(Locale.ROOT));
+        return i == null ? null : nodes[i].getCategory();
+    }
+
+    /**
+     * @return Copies of all nodes, each after its prerequisites
+     */
+    public List<SkillNode> nodes() {
+        List<SkillNode> copies = new ArrayList<>(topologicalOrder.size());
+        for (SkillNode node : topologicalOrder) copies.add(copyOf(node));
+        return copies;
+    }
+
+    /**
+     * @return Every direct and transitive prerequisite of the node, nearest first
+     */
+    public List<String> ancestors(String id) {
+        return traverse(id, prerequisites);
+    }
+
+    /**
+     * @return Every node that directly or transitively depends on the node, nearest first
+     */
+    public List<String> descendants(String id) {
+        return traverse(id, children);
+    }
+
+    /**
+     * The unlock frontier for a learner: nodes not yet completed whose prerequisites are all completed.
+     * @param completed Ids of completed nodes (unknown ids are ignored)
+     * @return Unlockable node ids in topological order
+     */
+    public List<String> unlockable(Collection<String> completed) {
+        BitSet done = new BitSet(ids.length);
+        for (String id : completed) {
+            Integer i = index.get(id);
+            if (i != null) done.set(i);
+        }
+
+        List<String> frontier = new ArrayList<>();
+        for (SkillNode node : topologicalOrder) {
+            int i = index.get(node.getId());
+            if (done.get(i)) continue;
+            boolean ready = true;
+            for (int p : prerequisites[i]) {
+                if (!done.get(p)) {
+                    ready = false;
+                    break;
+                }
+            }
+            if (ready) frontier.add(ids[i]);
+        }
+        return frontier;
+    }
+
+    private static SkillNode copyOf(SkillNode node) {
+        SkillNode copy = new SkillNode();
+        copy.setId(node.getId());
+        copy.setTitle(node.getTitle());
+        copy.setDescription(node.getDescription());
+        copy.setCategory(node.getCategory());
+        copy.setPrerequisites(node.getPrerequisites() == null ? new ArrayList<>() : new ArrayList<>(node.getPrerequisites()));
+        return copy;
+    }
+
+    private List<String> traverse(String id, int[][] edges) {
+        Integer start = index.get(id);
+        if (start == null) return List.of();
+
+        BitSet seen = new BitSet(ids.length);
+        int[] queue = new int[ids.length];
+        int head = 0, tail = 0;
+        seen.set(start);
+        queue[tail++] = start;
+
+        List<String> result = new ArrayList<>();
+        while (head < tail) {
+            for (int next : edges[queue[head++]]) {
+                if (seen.get(next)) continue;
+                seen.set(next);
+                queue[tail++] = next;
+                result.add(ids[next]);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package com.skilltree.skilltreebackend.metrics;
+
+import com.skilltree.skilltreebackend.config.AIProvider;
+import com.skilltree.skilltreebackend.config.AITransport;
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.exception.ProviderBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the chat pipeline, tagged by provider and mode (fast = Groq, deep = Gemini).
+ *
+ * - chat.upstream.latency     time until provider response headers (timer, histogram), tags: type, status
+ * - chat.response.parse       time to read and parse a full reply body (timer, histogram)
+ * - chat.upstream.errors      failed provider calls, tag: cause
+ * - chat.upstream.empty       2xx replies without usable text
+ * - chat.tokens               prompt/completion tokens from the provider's usage fields, tag: type
+ * - chat.upstream.inflight    calls currently holding a transport slot (gauge)
+ * - chat.upstream.connections pooled connections, tag: state = total|idle (gauge)
+ * - chat.requests             end-to-end /api/chat handling per mode, tags: endpoint, outcome
+ *
+ * Fixed-tag meters are registered once up front; only error counters are looked up per event.
+ */
+@Component
+public class ChatMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<AIProvider, Timer> parse = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, Counter> empty = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, Counter> promptTokens = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, Counter> completionTokens = new EnumMap<>(AIProvider.class);
+
+    public ChatMetrics(MeterRegistry registry, AITransport transport) {
+        this.registry = registry;
+
+        for (AIProvider provider : AIProvider.values()) {
+            parse.put(provider, Timer.builder("chat.response.parse")
+                    .description("Time to read and parse a provider reply body")
+                    .tags("provider", tag(provider), "mode", modeOf(provider))
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+            empty.put(provider, Counter.builder("chat.upstream.empty")
+                    .description("Successful provider replies that contained no usable text")
+                    .tags("provider", tag(provider), "mode", modeOf(provider))
+                    .register(registry));
+            promptTokens.put(provider, tokenCounter(provider, "prompt"));
+            completionTokens.put(provider, tokenCounter(provider, "completion"));
+
+            Gauge.builder("chat.upstream.inflight", transport, t -> t.inFlightCount(provider))
+                    .description("Provider calls currently holding a transport slot")
+                    .tags("provider", tag(provider), "mode", modeOf(provider))
+                    .register(registry);
+            Gauge.builder("chat.upstream.connections", transport, t -> t.connectionCount(provider))
+                    .tags("provider", tag(provider), "mode", modeOf(provider), "state", "total")
+                    .register(registry);
+            Gauge.builder("chat.upstream.connections", transport, t -> t.idleConnectionCount(provider))
+                    .tags("provider", tag(provider), "mode", modeOf(provider), "state", "idle")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Records time from sending the request until the response headers arrived.
+     */
+    public void upstream(AIProvider provider, boolean streaming, int status, long startNanos) {
+        Timer.builder("chat.upstream.latency")
+                .description("Time until provider response headers")
+                .tags("provider", tag(provider), "mode", modeOf(provider),
+                        "type", streaming ? "stream" : "chat", "status", (status / 100) + "xx")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofMinutes(2))
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void parsed(AIProvider provider, long startNanos) {
+        parse.get(provider).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void empty(AIProvider provider) {
+        empty.get(provider).increment();
+    }
+
+    public void tokens(AIProvider provider, long prompt, long completion) {
+        if (prompt > 0) promptTokens.get(provider).increment(prompt);
+        if (completion > 0) completionTokens.get(provider).increment(completion);
+    }
+
+    public void error(AIProvider provider, String cause) {
+        Counter.builder("chat.upstream.errors")
+                .description("Failed provider calls by cause")
+                .tags("provider", tag(provider), "mode", modeOf(provider), "cause", cause)
+                .register(registry)
+                .increment();
+    }
+
+    public void error(AIProvider provider, Throwable failure) {
+        error(provider, causeOf(failure));
+    }
+
+    /**
+     * Records one handled chat request, from the controller's point of view.
+     * @param mode Requested mode; anything but "deep" is served (and tagged) as fast
+     * @param outcome success, primer, provider_error, busy, rate_limited, error or disconnected
+     */
+    public void request(String mode, String endpoint, String outcome, long startNanos) {
+        Timer.builder("chat.requests")
+                .description("Chat requests handled, including cache hits and fallbacks")
+                .tags("mode", "deep".equals(mode) ? "deep" : "fast", "endpoint", endpoint, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Bounded set of cause tags so error counters cannot explode in cardinality.
+     */
+    public static String causeOf(Throwable failure) {
+        if (failure instanceof AIProviderException e && e.getStatus() > 0) return httpCause(e.getStatus());
+        if (failure instanceof AIProviderException e && e.getCause() != null) return causeOf(e.getCause());
+        if (failure instanceof ProviderBusyException) return "saturated";
+        // OkHttp's message when Call.cancel() aborted the request, e.g. a losing hedge
+        if (failure instanceof IOException && "Canceled".equals(failure.getMessage())) return "cancelled";
+        if (failure instanceof SocketTimeoutException) return "timeout";
+        if (failure instanceof InterruptedIOException) return "interrupted";
+        if (failure instanceof ConnectException) return "connect";
+        if (failure instanceof UnknownHostException) return "dns";
+        if (failure instanceof IOException) return "io";
+        return "other";
+    }
+
+    public static String httpCause(int status) {
+        if (status == 429) return "rate_limited";
+        if (status == 401 || status == 403) return "auth";
+        if (status >= 500) return "server_error";
+        return "client_error";
+    }
+
+    public static String modeOf(AIProvider provider) {
+        return provider == AIProvider.GEMINI ? "deep" : "fast";
+    }
+
+    private Counter tokenCounter(AIProvider provider, String type) {
+        return Counter.builder("chat.tokens")
+                .description("Tokens reported in provider usage fields")
+                .baseUnit("tokens")
+                .tags("provider", tag(provider), "mode", modeOf(provider), "type", type)
+                .register(registry);
+    }
+
+    private static String tag(AIProvider provider) {
+        return provider.name().toLowerCase();
+    }
+}
@@ -0,0 +1,37 @@
+package com.skilltree.skilltreebackend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A precomputed answer to a skill node's opening question, stored in the MongoDB 'chat_primers' collection.
+ * The id is "mode:nodeId". Documents are removed by a TTL index once expiresAt passes,
+ * and ignored earlier if their version no longer matches chat.primer.version.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "chat_primers")
+public class ChatPrimer {
+    @Id
+    private String id;
+
+    private String nodeId;
+    private String nodeTitle;
+    private String mode;
+    private String question;
+    private String reply;
+    private int version;
+    private Instant generatedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public static String key(String mode, String nodeId) {
+        return mode + ":" + nodeId;
+    }
+}
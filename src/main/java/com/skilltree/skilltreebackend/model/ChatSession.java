@@ -0,0 +1,44 @@
+package com.skilltree.skilltreebackend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A multi-turn chat conversation stored in the MongoDB 'chat_sessions' collection.
+ * Lives in memory while active and is written here when evicted or on shutdown.
+ * Idle sessions are removed by a TTL index after 7 days.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "chat_sessions")
+public class ChatSession {
+    @Id
+    private String id;
+
+    // ClientKeys of the caller the server issued this session to; nobody else may use it
+    private String owner;
+
+    private String node;
+    private String mode;
+
+    // Short digest of turns that were folded out of the window
+    private String summary;
+
+    private List<ChatTurn> turns = new ArrayList<>();
+
+    @Indexed(expireAfterSeconds = 604800)
+    private Instant updatedAt;
+
+    public ChatSession(String id, String owner) {
+        this.id = id;
+        this.owner = owner;
+        this.updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,17 @@
+package com.skilltree.skilltreebackend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One message in a chat session, embedded in {@link ChatSession}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatTurn {
+    private String role;     // "user" or "assistant"
+    private String content;
+    private int tokens;      // local estimate, cached so windowing never re-counts
+}
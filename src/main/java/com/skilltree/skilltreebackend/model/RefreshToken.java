@@ -0,0 +1,34 @@
+package com.skilltree.skilltreebackend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A refresh token that has been issued and not yet used, stored in the MongoDB 'refresh_tokens' collection.
+ * The id is the token's jti. Redeeming a token deletes its document, so each one works once;
+ * documents are removed by a TTL index once expiresAt passes.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Indexed
+    private String userId;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expiresAt;
+
+    public RefreshToken(String id, String userId, Instant expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.skilltree.skilltreebackend.model;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a node of the skill tree stored in the MongoDB 'skill_nodes' collection.
+ * Edges are stored once, as the ids of the node's prerequisites; children are derived.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "skill_nodes")
+public class SkillNode {
+    @Id
+    @NotBlank(message = "Node id is required")
+    private String id;          // stable slug, e.g. "java-basics"
+
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    private String description;
+    private String category;
+
+    private List<String> prerequisites = new ArrayList<>();
+}
@@ -0,0 +1,47 @@
+package com.skilltree.skilltreebackend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A user's progress on one skill node, stored in the MongoDB 'skill_progress' collection.
+ * The id is "userId:nodeId" so write-behind flushes can upsert without a lookup.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "skill_progress")
+public class SkillProgress {
+    @Id
+    private String id;
+
+    @Indexed
+    private String userId;
+    private String nodeId;
+
+    private boolean completed;
+    private int attempts;
+    private Instant lastVisited;
+    private Instant completedAt;
+
+    // Write-behind bookkeeping: which instance and flush generation last upserted this document
+    @JsonIgnore
+    private String flushedBy;
+    @JsonIgnore
+    private long flushSeq;
+
+    public SkillProgress(String userId, String nodeId) {
+        this.id = key(userId, nodeId);
+        this.userId = userId;
+        this.nodeId = nodeId;
+    }
+
+    public static String key(String userId, String nodeId) {
+        return userId + ":" + nodeId;
+    }
+}
@@ -0,0 +1,108 @@
+package com.skilltree.skilltreebackend.prompt;
+
+import com.skilltree.skilltreebackend.config.AIConfig;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds provider request bodies from templates compiled once at startup.
+ * Everything except the user's node and message is pre-encoded into constant
+ * byte prefixes/suffixes; the variable parts are escaped straight into an okio
+ * Buffer, whose pooled segments are handed to OkHttp without another copy.
+ * Each provider has a default user template plus optional ones per skill node category
+ * (ai.*.node-type-templates), all compiled up front; lookup is one map get per request.
+ */
+@Component
+public class ChatRequestBodies {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final ByteString groqPrefix;
+    private final PromptTemplate groqUser;
+    private final Map<String, PromptTemplate> groqUserByType;
+    private final ByteString groqSuffix;
+    private final ByteString groqStreamSuffix;
+
+    private final ByteString geminiPrefix;
+    private final PromptTemplate geminiUser;
+    private final Map<String, PromptTemplate> geminiUserByType;
+    private final ByteString geminiSuffix;
+
+    public ChatRequestBodies(AIConfig config) {
+        this.groqPrefix = ByteString.encodeUtf8("{\"model\":\"" + JsonText.escape(config.getGroqModel()) + "\","
+                + "\"messages\":[{\"role\":\"system\",\"content\":\"" + JsonText.escape(config.getGroqSystemPrompt()) + "\"},"
+                + "{\"role\":\"user\",\"content\":\"");
+        this.groqUser = PromptTemplate.compile(config.getGroqUserTemplate());
+        this.groqUserByType = compileByType(config.getGroqNodeTypeTemplates());
+        String groqTail = "\"}],\"max_tokens\":" + config.getGroqMaxTokens()
+                + ",\"temperature\":" + config.getGroqTemperature() + ",\"stream\":";
+        this.groqSuffix = ByteString.encodeUtf8(groqTail + "false}");
+        this.groqStreamSuffix = ByteString.encodeUtf8(groqTail + "true}");
+
+        // Gemini takes generation settings under generationConfig, not at the top level
+        this.geminiPrefix = ByteString.encodeUtf8("{\"contents\":[{\"role\":\"user\",\"parts\":[{\"text\":\"");
+        this.geminiUser = PromptTemplate.compile(config.getGeminiUserTemplate());
+        this.geminiUserByType = compileByType(config.getGeminiNodeTypeTemplates());
+        this.geminiSuffix = ByteString.encodeUtf8("\"}]}],\"generationConfig\":{\"maxOutputTokens\":"
+                + config.getGeminiMaxTokens() + ",\"temperature\":" + config.getGeminiTemperature() + "}}");
+    }
+
+    /**
+     * @param nodeType Category of the skill node, or null; selects the matching template if one is configured
+     */
+    public RequestBody groq(String nodeType, String node, String message, boolean stream) {
+        Buffer buffer = new Buffer();
+        buffer.write(groqPrefix);
+        templateFor(groqUserByType, groqUser, nodeType).writeTo(buffer, node, message);
+        buffer.write(stream ? groqStreamSuffix : groqSuffix);
+        return bodyOf(buffer);
+    }
+
+    public RequestBody gemini(String nodeType, String node, String message) {
+        Buffer buffer = new Buffer();
+        buffer.write(geminiPrefix);
+        templateFor(geminiUserByType, geminiUser, nodeType).writeTo(buffer, node, message);
+        buffer.write(geminiSuffix);
+        return bodyOf(buffer);
+    }
+
+    private static Map<String, PromptTemplate> compileByType(Map<String, String> templates) {
+        Map<String, PromptTemplate> compiled = new HashMap<>();
+        templates.forEach((type, template) -> compiled.put(type.toLowerCase(Locale.ROOT), PromptTemplate.compile(template)));
+        return Map.copyOf(compiled);
+    }
+
+    private static PromptTemplate templateFor(Map<String, PromptTemplate> byType, PromptTemplate fallback, String nodeType) {
+        if (nodeType == null || byType.isEmpty()) return fallback;
+        return byType.getOrDefault(nodeType.toLowerCase(Locale.ROOT), fallback);
+    }
+
+    private static RequestBody bodyOf(Buffer buffer) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public long contentLength() {
+                return buffer.size();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) {
+                // copyTo shares segments instead of draining, so retries can resend the same body
+                buffer.copyTo(sink.getBuffer(), 0, buffer.size());
+                sink.emitCompleteSegments();
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.skilltree.skilltreebackend.prompt;
+
+import okio.Buffer;
+
+/**
+ * Writes JSON string contents (without the surrounding quotes) straight into an okio buffer.
+ * Escapes quotes, backslashes and every control character, so any user input yields valid JSON.
+ */
+final class JsonText {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private JsonText() {
+    }
+
+    static void write(Buffer out, String s) {
+        if (s == null) return;
+        int length = s.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+
+            // Flush the unescaped run in one call, then the escape sequence
+            if (i > start) out.writeUtf8(s, start, i);
+            switch (c) {
+                case '"' -> out.writeUtf8("\\\"");
+                case '\\' -> out.writeUtf8("\\\\");
+                case '\n' -> out.writeUtf8("\\n");
+                case '\r' -> out.writeUtf8("\\r");
+                case '\t' -> out.writeUtf8("\\t");
+                case '\b' -> out.writeUtf8("\\b");
+                case '\f' -> out.writeUtf8("\\f");
+                default -> {
+                    out.writeUtf8("\\u00");
+                    out.writeByte(HEX[c >> 4]);
+                    out.writeByte(HEX[c & 0xF]);
+                }
+            }
+            start = i + 1;
+        }
+        if (start < length) out.writeUtf8(s, start, length);
+    }
+
+    static String escape(String s) {
+        Buffer buffer = new Buffer();
+        write(buffer, s);
+        return buffer.readUtf8();
+    }
+}
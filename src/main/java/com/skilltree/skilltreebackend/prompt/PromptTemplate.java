@@ -0,0 +1,61 @@
+package com.skilltree.skilltreebackend.prompt;
+
+import okio.Buffer;
+import okio.ByteString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A prompt text with {node} and {message} placeholders, compiled once into
+ * pre-escaped literal segments. Rendering writes the escaped result directly
+ * into a JSON string value in the request buffer, without String.format or
+ * intermediate Strings.
+ */
+public final class PromptTemplate {
+
+    private static final String NODE = "{node}";
+    private static final String MESSAGE = "{message}";
+
+    // Each segment is either a pre-encoded literal (ByteString) or a placeholder marker (String)
+    private final Object[] segments;
+
+    private PromptTemplate(Object[] segments) {
+        this.segments = segments;
+    }
+
+    public static PromptTemplate compile(String template) {
+        List<Object> segments = new ArrayList<>();
+        int start = 0;
+        while (start < template.length()) {
+            int node = template.indexOf(NODE, start);
+            int message = template.indexOf(MESSAGE, start);
+            int next = node < 0 ? message : message < 0 ? node : Math.min(node, message);
+            if (next < 0) break;
+
+            addLiteral(segments, template.substring(start, next));
+            String placeholder = next == node ? NODE : MESSAGE;
+            segments.add(placeholder);
+            start = next + placeholder.length();
+        }
+        addLiteral(segments, template.substring(start));
+        return new PromptTemplate(segments.toArray());
+    }
+
+    /**
+     * Writes the rendered, JSON-escaped prompt (no surrounding quotes).
+     */
+    public void writeTo(Buffer out, String node, String message) {
+        for (Object segment : segments) {
+            if (segment instanceof ByteString literal) {
+                out.write(literal);
+            } else {
+                JsonText.write(out, NODE.equals(segment) ? node : message);
+            }
+        }
+    }
+
+    private static void addLiteral(List<Object> segments, String literal) {
+        if (!literal.isEmpty()) segments.add(ByteString.encodeUtf8(JsonText.escape(literal)));
+    }
+}
@@ -0,0 +1,202 @@
+package com.skilltree.skilltreebackend.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skilltree.skilltreebackend.config.AIConfig;
+import com.skilltree.skilltreebackend.config.AIProvider;
+import com.skilltree.skilltreebackend.dto.ChatRequest;
+import com.skilltree.skilltreebackend.exception.RateLimitExceededException;
+import com.skilltree.skilltreebackend.util.ClientKeys;
+import com.skilltree.skilltreebackend.util.TokenEstimator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token-weighted rate limiter for chat.
+ * Costs are the estimated prompt tokens plus the mode's completion allowance, so deep-mode
+ * prompts cost more than fast ones. The controller charges each request against the caller's
+ * bucket for its mode and gets a {@link Charge} back; the charge is refunded unless the request
+ * actually reached a provider, so reply-cache hits and coalesced followers cost the client nothing.
+ * Every call that actually leaves for a provider (retries, hedges and
+ * deep-to-fast fallbacks included, cache hits excluded) is charged against that provider's
+ * shared bucket, so no single client can drain the Groq/Gemini quota for everyone.
+ */
+@Component
+public class ChatRateLimiter {
+
+    private final boolean enabled;
+    private final AIConfig config;
+    private final long fastTokensPerMinute;
+    private final long fastBurstTokens;
+    private final long deepTokensPerMinute;
+    private final long deepBurstTokens;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Map<AIProvider, TokenBucket> providerBuckets = new EnumMap<>(AIProvider.class);
+
+    public ChatRateLimiter(
+            AIConfig config,
+            @Value("${chat.ratelimit.enabled:true}") boolean enabled,
+            @Value("${chat.ratelimit.fast.tokens-per-minute:12000}") long fastTokensPerMinute,
+            @Value("${chat.ratelimit.fast.burst-tokens:6000}") long fastBurstTokens,
+            @Value("${chat.ratelimit.deep.tokens-per-minute:6000}") long deepTokensPerMinute,
+            @Value("${chat.ratelimit.deep.burst-tokens:4000}") long deepBurstTokens,
+            @Value("${chat.ratelimit.groq.tokens-per-minute:300000}") long groqTokensPerMinute,
+            @Value("${chat.ratelimit.groq.burst-tokens:50000}") long groqBurstTokens,
+            @Value("${chat.ratelimit.gemini.tokens-per-minute:120000}") long geminiTokensPerMinute,
+            @Value("${chat.ratelimit.gemini.burst-tokens:20000}") long geminiBurstTokens,
+            @Value("${chat.ratelimit.max-clients:100000}") long maxClients
+    ) {
+        this.config = config;
+        this.enabled = enabled;
+        this.fastTokensPerMinute = fastTokensPerMinute;
+        this.fastBurstTokens = fastBurstTokens;
+        this.deepTokensPerMinute = deepTokensPerMinute;
+        this.deepBurstTokens = deepBurstTokens;
+        // Idle clients' buckets are full again after a few minutes, so they can simply be dropped
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+        providerBuckets.put(AIProvider.GROQ, new TokenBucket(groqTokensPerMinute, groqBurstTokens));
+        providerBuckets.put(AIProvider.GEMINI, new TokenBucket(geminiTokensPerMinute, geminiBurstTokens));
+    }
+
+    /**
+     * Charges the caller for one request.
+     * @param prompt What will be sent upstream, e.g. the message with a session's earlier turns
+     * @return The charge; bind it around the chat call so it is refunded if no provider call is made
+     */
+    public Charge acquire(HttpServletRequest request, ChatRequest item, String prompt) {
+        if (!enabled) return Charge.NONE;
+        return charge(ClientKeys.of(request), item, prompt, List.of());
+    }
+
+    /**
+     * Charges the caller for all items or none.
+     * @return One charge per item, in item order
+     * @throws RateLimitExceededException with the time after which the same request would pass
+     */
+    public List<Charge> acquire(HttpServletRequest request, List<ChatRequest> items) {
+        if (!enabled) return Collections.nCopies(items.size(), Charge.NONE);
+        String client = ClientKeys.of(request);
+        List<Charge> charges = new ArrayList<>(items.size());
+        for (ChatRequest item : items) {
+            charges.add(charge(client, item, item.getMessage(), charges));
+        }
+        return charges;
+    }
+
+    /**
+     * Charges the shared quota of the provider a call is about to be sent to.
+     * @throws RateLimitExceededException with the time after which the provider's bucket covers the call
+     */
+    public void acquireUpstream(AIProvider provider, String node, String prompt) {
+        if (!enabled) return;
+        long waitNanos = providerBuckets.get(provider).tryAcquire(cost(provider, node, prompt));
+        if (waitNanos == 0) {
+            Charge.markSent();
+            return;
+        }
+
+        long retryAfter = retryAfterSeconds(waitNanos);
+        throw new RateLimitExceededException(
+                provider + " is at capacity right now, please retry in " + retryAfter + "s.", retryAfter);
+    }
+
+    /**
+     * Like {@link #acquireUpstream}, for optional calls such as hedges that are simply skipped when the quota is tight.
+     * @return false if the provider's bucket cannot cover the call right now
+     */
+    public boolean tryAcquireUpstream(AIProvider provider, String node, String prompt) {
+        if (!enabled) return true;
+        return providerBuckets.get(provider).tryAcquire(cost(provider, node, prompt)) == 0;
+    }
+
+    private Charge charge(String client, ChatRequest item, String prompt, List<Charge> earlier) {
+        String mode = "deep".equals(item.getMode()) ? "deep" : "fast";
+        long cost = cost(providerFor(mode), item.getNode(), prompt);
+
+        TokenBucket clientBucket = clientBuckets.get(mode + '|' + client, key -> newClientBucket(mode));
+        long waitNanos = clientBucket.tryAcquire(cost);
+        if (waitNanos == 0) return new Charge(clientBucket, cost);
+
+        earlier.forEach(Charge::refund);
+        long retryAfter = retryAfterSeconds(waitNanos);
+        throw new RateLimitExceededException(
+                "Too many " + mode + " chat requests, please retry in " + retryAfter + "s.", retryAfter);
+    }
+
+    private long cost(AIProvider provider, String node, String prompt) {
+        int completionAllowance = provider == AIProvider.GEMINI ? config.getGeminiMaxTokens() : config.getGroqMaxTokens();
+        return TokenEstimator.estimate(node) + TokenEstimator.estimate(prompt) + completionAllowance;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private TokenBucket newClientBucket(String mode) {
+        return "deep".equals(mode)
+                ? new TokenBucket(deepTokensPerMinute, deepBurstTokens)
+                : new TokenBucket(fastTokensPerMinute, fastBurstTokens);
+    }
+
+    private static AIProvider providerFor(String mode) {
+        return "deep".equals(mode) ? AIProvider.GEMINI : AIProvider.GROQ;
+    }
+
+    /**
+     * One request's charge against its client bucket. While bound to a thread, any provider
+     * quota taken on that thread (the first attempt, retries, hedges, fallbacks) marks it as sent;
+     * closing it unbinds it and refunds the client if nothing was sent, e.g. on a reply-cache hit
+     * or when a coalesced call shared another request's reply.
+     */
+    public static final class Charge implements AutoCloseable {
+
+        static final Charge NONE = new Charge(null, 0);
+        private static final ThreadLocal<Charge> CURRENT = new ThreadLocal<>();
+
+        private final TokenBucket bucket;
+        private final long tokens;
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private volatile boolean sent;
+
+        private Charge(TokenBucket bucket, long tokens) {
+            this.bucket = bucket;
+            this.tokens = tokens;
+        }
+
+        /**
+         * Binds the charge to the calling thread, which must be the one making the chat call.
+         */
+        public Charge bind() {
+            if (bucket != null) CURRENT.set(this);
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (bucket == null) return;
+            if (CURRENT.get() == this) CURRENT.remove();
+            if (!sent) refund();
+        }
+
+        private void refund() {
+            if (bucket != null && settled.compareAndSet(false, true)) bucket.refund(tokens);
+        }
+
+        private static void markSent() {
+            Charge charge = CURRENT.get();
+            if (charge != null) charge.sent = true;
+        }
+    }
+}
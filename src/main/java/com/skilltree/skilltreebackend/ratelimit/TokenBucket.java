@@ -0,0 +1,49 @@
+package com.skilltree.skilltreebackend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as GCRA (generic cell rate algorithm).
+ * The whole state is one "theoretical arrival time" in an AtomicLong, so acquiring
+ * is a single CAS with no timer thread and no lock.
+ */
+public class TokenBucket {
+
+    private final double nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param tokensPerMinute Sustained refill rate
+     * @param burstTokens Bucket capacity (largest amount that can be spent at once)
+     */
+    public TokenBucket(long tokensPerMinute, long burstTokens) {
+        this.nanosPerToken = 60_000_000_000d / Math.max(1, tokensPerMinute);
+        this.burstNanos = (long) (Math.max(1, burstTokens) * nanosPerToken);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Tries to take {@code tokens} from the bucket.
+     * @return 0 if taken, otherwise nanoseconds until that many tokens will be available
+     */
+    public long tryAcquire(long tokens) {
+        // A request larger than the whole bucket is charged a full bucket rather than never admitted
+        long increment = Math.min(burstNanos, (long) (tokens * nanosPerToken));
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + increment;
+            long wait = next - now - burstNanos;
+            if (wait > 0) return wait;
+            if (theoreticalArrival.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    /**
+     * Gives back tokens taken by {@link #tryAcquire} when a later check rejected the request.
+     */
+    public void refund(long tokens) {
+        theoreticalArrival.addAndGet(-Math.min(burstNanos, (long) (tokens * nanosPerToken)));
+    }
+}
@@ -0,0 +1,13 @@
+package com.skilltree.skilltreebackend.repository;
+
+import com.skilltree.skilltreebackend.model.ChatPrimer;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+/**
+ * Repository interface for ChatPrimer documents.
+ */
+public interface ChatPrimerRepository extends MongoRepository<ChatPrimer, String> {
+    List<ChatPrimer> findByVersion(int version);
+}
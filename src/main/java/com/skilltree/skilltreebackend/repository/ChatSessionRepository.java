@@ -0,0 +1,10 @@
+package com.skilltree.skilltreebackend.repository;
+
+import com.skilltree.skilltreebackend.model.ChatSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Repository interface for ChatSession documents spilled from the in-memory session store.
+ */
+public interface ChatSessionRepository extends MongoRepository<ChatSession, String> {
+}
@@ -0,0 +1,11 @@
+package com.skilltree.skilltreebackend.repository;
+
+import com.skilltree.skilltreebackend.model.SkillNode;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Repository interface for SkillNode documents. Only used to load and edit the tree;
+ * all reads are served from the in-memory SkillGraph.
+ */
+public interface SkillNodeRepository extends MongoRepository<SkillNode, String> {
+}
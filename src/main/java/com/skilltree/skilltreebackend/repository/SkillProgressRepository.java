@@ -0,0 +1,14 @@
+package com.skilltree.skilltreebackend.repository;
+
+import com.skilltree.skilltreebackend.model.SkillProgress;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+/**
+ * Repository interface for SkillProgress documents.
+ * Writes go through SkillProgressService's write-behind buffer, not through this repository.
+ */
+public interface SkillProgressRepository extends MongoRepository<SkillProgress, String> {
+    List<SkillProgress> findByUserId(String userId);
+}
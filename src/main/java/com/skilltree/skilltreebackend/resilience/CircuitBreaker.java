@@ -0,0 +1,69 @@
+package com.skilltree.skilltreebackend.resilience;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * CLOSED lets everything through; after {@code failureThreshold} failures in a row it
+ * turns OPEN and rejects calls for {@code openMillis}; then HALF_OPEN admits a single
+ * probe whose outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @return true if the caller may go ahead; it must then report exactly one of
+     *         {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) return false;
+            state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return probeInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.get() != State.CLOSED) {
+            state.set(State.CLOSED);
+            probeInFlight.set(false);
+        }
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            state.set(State.OPEN);
+            probeInFlight.set(false);
+        }
+    }
+
+    /**
+     * Releases a half-open probe whose call ended without a usable health signal.
+     */
+    public void onIgnored() {
+        if (state.get() == State.HALF_OPEN) probeInFlight.set(false);
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
@@ -0,0 +1,41 @@
+package com.skilltree.skilltreebackend.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring buffer of recent call latencies with a periodically refreshed p95.
+ */
+public class LatencyTracker {
+
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final int MIN_SAMPLES = 20;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong count = new AtomicLong();
+    private volatile long p95Millis = -1;
+
+    public void record(long millis) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % WINDOW), millis);
+        if ((n + 1) % RECOMPUTE_EVERY == 0 && n + 1 >= MIN_SAMPLES) {
+            recompute((int) Math.min(n + 1, WINDOW));
+        }
+    }
+
+    /**
+     * @return The p95 over the recent window, or -1 until enough samples exist
+     */
+    public long p95Millis() {
+        return p95Millis;
+    }
+
+    private void recompute(int size) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) copy[i] = samples.get(i);
+        Arrays.sort(copy);
+        p95Millis = copy[Math.min(size - 1, (int) Math.ceil(size * 0.95) - 1)];
+    }
+}
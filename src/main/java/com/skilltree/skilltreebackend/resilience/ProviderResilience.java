@@ -0,0 +1,83 @@
+package com.skilltree.skilltreebackend.resilience;
+
+import com.skilltree.skilltreebackend.config.AIProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-provider circuit breakers, retry budgets and latency trackers, plus the shared retry policy.
+ */
+@Component
+public class ProviderResilience {
+
+    private final Map<AIProvider, CircuitBreaker> breakers = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, RetryBudget> retryBudgets = new EnumMap<>(AIProvider.class);
+    private final Map<AIProvider, LatencyTracker> latencies = new EnumMap<>(AIProvider.class);
+
+    private final int maxRetries;
+    private final long retryBaseDelayMs;
+    private final boolean hedgeEnabled;
+    private final long hedgeMinDelayMs;
+
+    public ProviderResilience(
+            @Value("${chat.resilience.failure-threshold:5}") int failureThreshold,
+            @Value("${chat.resilience.open-seconds:30}") long openSeconds,
+            @Value("${chat.resilience.max-retries:2}") int maxRetries,
+            @Value("${chat.resilience.retry-base-delay-ms:200}") long retryBaseDelayMs,
+            @Value("${chat.resilience.retry-budget-ratio:0.1}") double retryBudgetRatio,
+            @Value("${chat.resilience.retry-budget-max:10}") int retryBudgetMax,
+            @Value("${chat.resilience.hedge-enabled:false}") boolean hedgeEnabled,
+            @Value("${chat.resilience.hedge-min-delay-ms:500}") long hedgeMinDelayMs
+    ) {
+        for (AIProvider provider : AIProvider.values()) {
+            breakers.put(provider, new CircuitBreaker(failureThreshold, TimeUnit.SECONDS.toMillis(openSeconds)));
+            retryBudgets.put(provider, new RetryBudget(retryBudgetRatio, retryBudgetMax));
+            latencies.put(provider, new LatencyTracker());
+        }
+        this.maxRetries = maxRetries;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeMinDelayMs = hedgeMinDelayMs;
+    }
+
+    public CircuitBreaker breaker(AIProvider provider) {
+        return breakers.get(provider);
+    }
+
+    public RetryBudget retryBudget(AIProvider provider) {
+        return retryBudgets.get(provider);
+    }
+
+    public LatencyTracker latency(AIProvider provider) {
+        return latencies.get(provider);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public boolean isHedgeEnabled() {
+        return hedgeEnabled;
+    }
+
+    /**
+     * @return Delay before hedging a call, or -1 if there is not enough latency history yet
+     */
+    public long hedgeDelayMillis(AIProvider provider) {
+        long p95 = latencies.get(provider).p95Millis();
+        return p95 < 0 ? -1 : Math.max(hedgeMinDelayMs, p95);
+    }
+
+    /**
+     * Exponential backoff with full jitter: a random delay in [0, base * 2^(attempt-1)].
+     */
+    public long backoffMillis(int attempt) {
+        long cap = retryBaseDelayMs << Math.min(attempt - 1, 10);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+}
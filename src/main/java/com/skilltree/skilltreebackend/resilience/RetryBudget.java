@@ -0,0 +1,36 @@
+package com.skilltree.skilltreebackend.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries to a fraction of recent traffic.
+ * Every original request deposits {@code ratio} of a token; every retry or hedge
+ * withdraws a whole one. During a brownout the bucket drains and retries stop,
+ * instead of multiplying load on a provider that is already struggling.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositMillis;
+    private final long maxMillis;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.depositMillis = Math.max(1, Math.round(ratio * SCALE));
+        this.maxMillis = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxMillis);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositMillis, (current, add) -> Math.min(maxMillis, current + add));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) return false;
+            if (balance.compareAndSet(current, current - SCALE)) return true;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.skilltree.skilltreebackend.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Compressed trie from string keys to small sets of string values (user ids).
+ * Edges carry whole substrings, so a path has one node per branching point rather than
+ * one per character. Children are kept sorted so lookups can binary-search them.
+ * Not thread-safe; UserSearchIndex guards it with a read/write lock.
+ */
+final class RadixTree {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final String[] NO_VALUES = new String[0];
+
+    private static final class Node {
+        String label;
+        Node[] children = NO_CHILDREN;
+        String[] values = NO_VALUES;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    // A node reached during a prefix walk, with the full key it spells
+    private record Match(Node node, String key) {
+    }
+
+    private static final Comparator<Match> SHORTEST_FIRST =
+            Comparator.comparingInt((Match m) -> m.key.length()).thenComparing(Match::key);
+
+    private final Node root = new Node("");
+    private int size;   // (key, value) pairs
+    private int nodes = 1;
+
+    int size() {
+        return size;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    void put(String key, String value) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int c = findChild(node, key.charAt(i));
+            if (c < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.values = new String[]{value};
+                node.children = insertAt(node.children, -c - 1, leaf);
+                nodes++;
+                size++;
+                return;
+            }
+            Node child = node.children[c];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge at the point where the new key diverges
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                node.children[c] = split;
+                nodes++;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        for (String existing : node.values)
+            if (existing.equals(value)) return;
+        node.values = Arrays.copyOf(node.values, node.values.length + 1);
+        node.values[node.values.length - 1] = value;
+        size++;
+    }
+
+    void remove(String key, String value) {
+        remove(root, key, 0, value);
+    }
+
+    private boolean remove(Node node, String key, int i, String value) {
+        if (i == key.length()) {
+            for (int v = 0; v < node.values.length; v++) {
+                if (!node.values[v].equals(value)) continue;
+                String[] values = new String[node.values.length - 1];
+                System.arraycopy(node.values, 0, values, 0, v);
+                System.arraycopy(node.values, v + 1, values, v, values.length - v);
+                node.values = values.length == 0 ? NO_VALUES : values;
+                size--;
+                return true;
+            }
+            return false;
+        }
+
+        int c = findChild(node, key.charAt(i));
+        if (c < 0) return false;
+        Node child = node.children[c];
+        int common = commonPrefix(child.label, key, i);
+        if (common < child.label.length() || !remove(child, key, i + common, value)) return false;
+
+        // Keep the tree compressed: drop empty leaves and merge pass-through nodes
+        if (child.values.length == 0 && child.children.length == 0) {
+            node.children = removeAt(node.children, c);
+            nodes--;
+        } else if (child.values.length == 0 && child.children.length == 1) {
+            Node only = child.children[0];
+            only.label = child.label + only.label;
+            node.children[c] = only;
+            nodes--;
+        }
+        return true;
+    }
+
+    /**
+     * Visits the values of every key starting with prefix, shortest and then
+     * lexicographically smallest keys first, until the sink returns false.
+     */
+    void visitPrefix(String prefix, Predicate<String> sink) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int c = findChild(node, prefix.charAt(i));
+            if (c < 0) return;
+            Node child = node.children[c];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // The prefix ends on, or part-way along, this edge
+                visit(new Match(child, prefix.substring(0, i) + child.label), sink);
+                return;
+            }
+            if (common < child.label.length()) return;
+            node = child;
+            i += common;
+        }
+        visit(new Match(node, prefix), sink);
+    }
+
+    /**
+     * Best-first walk of the subtree ordered by key length. A depth-first walk would return
+     * "alexander" before "alexb" because the 'a' branch sorts first; only the frontier of
+     * nodes not yet visited is queued, so a top-k walk stays proportional to k.
+     */
+    private static void visit(Match start, Predicate<String> sink) {
+        PriorityQueue<Match> frontier = new PriorityQueue<>(SHORTEST_FIRST);
+        frontier.add(start);
+        Match next;
+        while ((next = frontier.poll()) != null) {
+            for (String value : next.node.values)
+                if (!sink.test(value)) return;
+            for (Node child : next.node.children)
+                frontier.add(new Match(child, next.key + child.label));
+        }
+    }
+
+    private static int findChild(Node node, char first) {
+        Node[] children = node.children;
+        int low = 0, high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char c = children[mid].label.charAt(0);
+            if (c < first) low = mid + 1;
+            else if (c > first) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(from + n)) n++;
+        return n;
+    }
+
+    private static Node[] insertAt(Node[] children, int index, Node node) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, index);
+        grown[index] = node;
+        System.arraycopy(children, index, grown, index + 1, children.length - index);
+        return grown;
+    }
+
+    private static Node[] removeAt(Node[] children, int index) {
+        if (children.length == 1) return NO_CHILDREN;
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, index);
+        System.arraycopy(children, index + 1, shrunk, index, shrunk.length - index);
+        return shrunk;
+    }
+}
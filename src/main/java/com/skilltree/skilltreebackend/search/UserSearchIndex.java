@@ -0,0 +1,216 @@
+package com.skilltree.skilltreebackend.search;
+
+import com.skilltree.skilltreebackend.dto.UserSuggestion;
+import com.skilltree.skilltreebackend.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over usernames and full names for "find a classmate" autocomplete.
+ * Each user is indexed under its username, its full name and up to max-name-words words of
+ * the full name, all lower-cased and cut to max-key-length, so memory per user is bounded.
+ *
+ * Built from a projected scan once the application is ready; UserService create/update/delete
+ * keep it in sync. Changes that arrive while a build is scanning are replayed onto the new
+ * index before it replaces the old one. Until the first build completes, searches return nothing.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final class Snapshot {
+        final RadixTree tree = new RadixTree();
+        final Map<String, UserSuggestion> users = new HashMap<>();
+    }
+
+    // suggestion == null means the user was deleted
+    private record Change(String id, UserSuggestion suggestion) {}
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+    private final int maxKeyLength;
+    private final int maxNameWords;
+    private final int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot current = new Snapshot();
+    private List<Change> pending;            // non-null while a build scans
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public UserSearchIndex(
+            MongoTemplate mongoTemplate,
+            @Qualifier("chatExecutor") ExecutorService executor,
+            @Value("${users.search.max-key-length:32}") int maxKeyLength,
+            @Value("${users.search.max-name-words:4}") int maxNameWords,
+            @Value("${users.search.max-results:50}") int maxResults
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.maxKeyLength = maxKeyLength;
+        this.maxNameWords = maxNameWords;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * @return Up to limit users whose username, full name or a word of it starts with prefix;
+     *         exact and shorter matches first
+     */
+    public List<UserSuggestion> search(String prefix, int limit) {
+        String key = truncate(normalize(prefix), maxKeyLength);
+        int k = Math.min(Math.max(limit, 1), maxResults);
+        if (key.isEmpty()) return List.of();
+
+        List<UserSuggestion> results = new ArrayList<>(k);
+        lock.readLock().lock();
+        try {
+            Snapshot snapshot = current;
+            Set<String> seen = new HashSet<>();
+            snapshot.tree.visitPrefix(key, id -> {
+                if (seen.add(id)) results.add(snapshot.users.get(id));
+                return results.size() < k;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    public void onUserSaved(User user) {
+        if (user == null || user.getId() == null) return;
+        apply(new Change(user.getId(), suggestionOf(user.getId(), user.getUsername(), user.getFullName())));
+    }
+
+    public void onUserDeleted(String id) {
+        if (id == null) return;
+        apply(new Change(id, null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        if (rebuilding.compareAndSet(false, true)) executor.execute(this::rebuild);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            apply(current, change);
+            if (pending != null) pending.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Snapshot snapshot, Change change) {
+        UserSuggestion previous = change.suggestion() == null
+                ? snapshot.users.remove(change.id())
+                : snapshot.users.put(change.id(), change.suggestion());
+        if (previous != null)
+            for (String key : keysOf(previous)) snapshot.tree.remove(key, change.id());
+        if (change.suggestion() != null)
+            for (String key : keysOf(change.suggestion())) snapshot.tree.put(key, change.id());
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        pending = new ArrayList<>();
+        lock.writeLock().unlock();
+        try {
+            Snapshot next = new Snapshot();
+            Query query = new Query();
+            query.fields().include("username").include("fullName");
+            query.cursorBatchSize(2000);
+            try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                users.forEach(doc -> {
+                    String id = String.valueOf(doc.get("_id"));
+                    apply(next, new Change(id, suggestionOf(id, doc.getString("username"), doc.getString("fullName"))));
+                });
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Change change : pending) apply(next, change);
+                current = next;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Built user search index for {} users ({} keys, {} nodes) in {} ms", next.users.size(),
+                    next.tree.size(), next.tree.nodeCount(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Could not build user search index: {}", e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            pending = null;
+            lock.writeLock().unlock();
+            rebuilding.set(false);
+        }
+    }
+
+    private UserSuggestion suggestionOf(String id, String username, String fullName) {
+        return new UserSuggestion(id, username, truncate(fullName, maxKeyLength * 2));
+    }
+
+    private Set<String> keysOf(UserSuggestion user) {
+        Set<String> keys = new LinkedHashSet<>();
+        addKey(keys, user.getUsername());
+        String name = normalize(user.getFullName());
+        addKey(keys, name);
+        int words = 0;
+        for (String word : name.split(" ")) {
+            if (words++ >= maxNameWords) break;
+            addKey(keys, word);
+        }
+        return keys;
+    }
+
+    private void addKey(Set<String> keys, String value) {
+        String key = truncate(normalize(value), maxKeyLength);
+        if (!key.isEmpty()) keys.add(key);
+    }
+
+    // Lower-cases and collapses whitespace runs to one space, without a regex on the search path
+    private static String normalize(String value) {
+        if (value == null) return "";
+        StringBuilder out = new StringBuilder(value.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
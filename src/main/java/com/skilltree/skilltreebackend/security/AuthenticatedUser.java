@@ -0,0 +1,20 @@
+package com.skilltree.skilltreebackend.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Principal built from a verified access token; everything a request needs without touching Mongo.
+ * Its name is the user id, so per-user keys (rate limits, chat session owners) stay stable across tokens.
+ */
+public record AuthenticatedUser(String id, String username, String email, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return id;
+    }
+
+    boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,49 @@
+package com.skilltree.skilltreebackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Authenticates requests carrying "Authorization: Bearer <access token>".
+ * Requests without a valid token continue anonymously; the authorization rules decide.
+ * Users listed in security.admin-user-ids also get ROLE_ADMIN.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtService jwtService;
+    private final Set<String> adminUserIds;
+
+    public JwtAuthenticationFilter(JwtService jwtService, Set<String> adminUserIds) {
+        this.jwtService = jwtService;
+        this.adminUserIds = adminUserIds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            AuthenticatedUser user = jwtService.verifyAccessToken(header.substring(BEARER.length()).trim());
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        user, null, adminUserIds.contains(user.id())
+                                ? AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN")
+                                : AuthorityUtils.createAuthorityList("ROLE_USER"));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
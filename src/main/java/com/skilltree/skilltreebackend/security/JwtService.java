@@ -0,0 +1,161 @@
+package com.skilltree.skilltreebackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skilltree.skilltreebackend.dto.AuthTokens;
+import com.skilltree.skilltreebackend.model.RefreshToken;
+import com.skilltree.skilltreebackend.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Issues and verifies HS256 access/refresh tokens.
+ * Verification is local (HMAC only, no database). Tokens that verified recently are kept
+ * in a small bounded cache keyed by the whole token string, so a hot client's repeated
+ * requests skip the parse + HMAC; entries never outlive the token's own expiry.
+ * Refresh tokens are single-use: each issued jti is recorded in 'refresh_tokens' and deleted
+ * when redeemed. Presenting one that was already used revokes all of that user's refresh tokens.
+ * Without security.jwt.secret a random key is generated per boot.
+ */
+@Component
+public class JwtService {
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final byte[] key;
+    private final Duration accessTtl;
+    private final Duration refreshTtl;
+    private final Cache<String, AuthenticatedUser> verified;
+
+    public JwtService(
+            MeterRegistry registry,
+            MongoTemplate mongoTemplate,
+            @Value("${security.jwt.secret:}") String secret,
+            @Value("${security.jwt.access-ttl-minutes:15}") long accessTtlMinutes,
+            @Value("${security.jwt.refresh-ttl-days:7}") long refreshTtlDays,
+            @Value("${security.jwt.verified-cache-size:10000}") long verifiedCacheSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.key = secret.isBlank() ? randomKey() : secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32)
+            throw new IllegalArgumentException("security.jwt.secret must be at least 32 bytes for HS256");
+        this.accessTtl = Duration.ofMinutes(accessTtlMinutes);
+        this.refreshTtl = Duration.ofDays(refreshTtlDays);
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(accessTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "auth.verified-tokens");
+    }
+
+    public AuthTokens issue(User user) {
+        Instant now = Instant.now();
+        String access = Jwts.builder()
+                .setSubject(user.getId())
+                .claim(TYPE_CLAIM, ACCESS)
+                .claim("username", user.getUsername())
+                .claim("email", user.getEmail())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(accessTtl)))
+                .signWith(SignatureAlgorithm.HS256, key)
+                .compact();
+        String jti = UUID.randomUUID().toString();
+        Instant refreshExpiry = now.plus(refreshTtl);
+        String refresh = Jwts.builder()
+                .setSubject(user.getId())
+                .setId(jti)
+                .claim(TYPE_CLAIM, REFRESH)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(refreshExpiry))
+                .signWith(SignatureAlgorithm.HS256, key)
+                .compact();
+        mongoTemplate.insert(new RefreshToken(jti, user.getId(), refreshExpiry));
+        return new AuthTokens(access, refresh, "Bearer", accessTtl.toSeconds());
+    }
+
+    /**
+     * @return The principal for a valid, unexpired access token; null otherwise
+     */
+    public AuthenticatedUser verifyAccessToken(String token) {
+        Instant now = Instant.now();
+        AuthenticatedUser cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) return cached;
+            verified.invalidate(token);
+            return null;
+        }
+
+        Claims claims = parse(token, ACCESS);
+        if (claims == null) return null;
+        AuthenticatedUser user = new AuthenticatedUser(
+                claims.getSubject(),
+                claims.get("username", String.class),
+                claims.get("email", String.class),
+                claims.getExpiration().toInstant());
+        verified.put(token, user);
+        return user;
+    }
+
+    /**
+     * Uses up a refresh token; the caller issues a new pair in its place.
+     * @return The user id of a valid, unexpired, not yet used refresh token; null otherwise
+     */
+    public String redeemRefreshToken(String token) {
+        Claims claims = parse(token, REFRESH);
+        if (claims == null || claims.getId() == null) return null;
+        String userId = claims.getSubject();
+
+        // Atomic, so two concurrent refreshes with the same token cannot both succeed
+        Query unused = new Query(Criteria.where("_id").is(claims.getId()).and("userId").is(userId));
+        if (mongoTemplate.findAndRemove(unused, RefreshToken.class) != null) return userId;
+
+        // A genuine token that was already redeemed: assume it leaked and end every session of that user
+        mongoTemplate.remove(new Query(Criteria.where("userId").is(userId)), RefreshToken.class);
+        log.warn("Reused refresh token for user {}; revoked all of their refresh tokens", userId);
+        return null;
+    }
+
+    private static byte[] randomKey() {
+        log.warn("security.jwt.secret is not set; using a random key, so tokens stop working on restart "
+                + "and are not accepted by other instances");
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        return random;
+    }
+
+    private Claims parse(String token, String expectedType) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            Claims claims = Jwts.parser().setSigningKey(key).parseClaimsJws(token).getBody();
+            if (!expectedType.equals(claims.get(TYPE_CLAIM, String.class))) return null;
+            if (claims.getSubject() == null || claims.getExpiration() == null) return null;
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
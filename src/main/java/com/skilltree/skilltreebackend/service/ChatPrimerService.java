@@ -0,0 +1,21 @@
+package com.skilltree.skilltreebackend.service;
+
+import java.util.Optional;
+
+/**
+ * Service interface for precomputed primer answers to each skill node's opening question.
+ */
+public interface ChatPrimerService {
+
+    /**
+     * Looks up a stored primer without touching Mongo or a provider.
+     * @return The primer if the request is the canonical opening question for a known node
+     */
+    Optional<String> find(String mode, String node, String message);
+
+    /**
+     * Generates missing, outdated or soon-to-expire primers in the background.
+     * @return false if primers are disabled or a run is already in progress
+     */
+    boolean refresh();
+}
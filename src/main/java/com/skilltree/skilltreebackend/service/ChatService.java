@@ -1,5 +1,23 @@
 package com.skilltree.skilltreebackend.service;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
 public interface ChatService {
     String chat(String node, String message);
+
+    /**
+     * Streams the reply, handing each text delta to {@code onDelta} as soon as the provider sends it.
+     * Blocks the calling thread until the upstream stream ends.
+     */
+    void stream(String node, String message, Consumer<String> onDelta) throws IOException;
+
+    /**
+     * Runs {@link #chat} on the given executor (normally the virtual-thread chat executor).
+     */
+    default CompletableFuture<String> chatAsync(String node, String message, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> chat(node, message), executor);
+    }
 }
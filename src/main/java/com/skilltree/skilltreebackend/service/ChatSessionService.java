@@ -0,0 +1,14 @@
+package com.skilltree.skilltreebackend.service;
+
+/**
+ * Service interface for multi-turn chat sessions.
+ * Keeps conversation history server-side and windows it to a token budget before each call.
+ * Sessions are opt-in: clients open one explicitly, and chat calls without a session id keep no state.
+ * Session ids are random UUIDs issued by open() and usable only by the owner they were issued to;
+ * unknown or foreign ids are reported as not found.
+ */
+public interface ChatSessionService {
+    String open(String owner);
+    String buildPrompt(String sessionId, String owner, String node, String message);
+    void recordTurn(String sessionId, String owner, String node, String mode, String message, String reply);
+}
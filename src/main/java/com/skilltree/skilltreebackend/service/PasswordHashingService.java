@@ -0,0 +1,11 @@
+package com.skilltree.skilltreebackend.service;
+
+/**
+ * Service interface for BCrypt work.
+ * Hashing runs on a bounded pool; callers get a HashingCapacityException when it is full.
+ */
+public interface PasswordHashingService {
+    String encode(String rawPassword);
+    boolean matches(String rawPassword, String encodedPassword);
+    boolean needsRehash(String encodedPassword);
+}
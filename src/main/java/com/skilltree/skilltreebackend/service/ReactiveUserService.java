@@ -0,0 +1,20 @@
+package com.skilltree.skilltreebackend.service;
+
+import com.skilltree.skilltreebackend.dto.UserPage;
+import com.skilltree.skilltreebackend.model.User;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service interface for the user read and login paths, with reactive return types.
+ * users.service.mode selects the implementation: "blocking" (default) adapts UserService,
+ * "reactive" uses the reactive Mongo driver so no thread waits on the database.
+ */
+public interface ReactiveUserService {
+    Mono<User> getUserById(String id);
+    Mono<User> findByEmail(String email);
+    Mono<User> findByUsername(String username);
+    Mono<Boolean> existsByEmail(String email);
+    Mono<Boolean> existsByUsername(String username);
+    Mono<UserPage> getUsersPage(String afterId, Integer limit);
+    Mono<User> login(String email, String password);
+}
@@ -0,0 +1,18 @@
+package com.skilltree.skilltreebackend.service;
+
+import com.skilltree.skilltreebackend.model.SkillProgress;
+
+import java.util.List;
+
+/**
+ * Service interface for per-user skill progress.
+ * Record methods are buffered and persisted asynchronously; reads include pending writes.
+ */
+public interface SkillProgressService {
+    void recordVisit(String userId, String nodeId);
+    void recordAttempt(String userId, String nodeId);
+    void markCompleted(String userId, String nodeId);
+    List<SkillProgress> getProgress(String userId);
+    List<String> getUnlockable(String userId);
+    int flush();
+}
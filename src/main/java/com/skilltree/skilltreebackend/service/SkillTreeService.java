@@ -0,0 +1,22 @@
+package com.skilltree.skilltreebackend.service;
+
+import com.skilltree.skilltreebackend.model.SkillNode;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for the skill tree.
+ * Reads are answered from an in-memory graph snapshot; edits persist and swap the snapshot.
+ */
+public interface SkillTreeService {
+    List<SkillNode> getTree();
+    SkillNode getNode(String id);
+    String getCategory(String idOrTitle);
+    List<String> getAncestors(String id);
+    List<String> getDescendants(String id);
+    List<String> getUnlockable(Collection<String> completed);
+    SkillNode saveNode(SkillNode node);
+    void deleteNode(String id);
+    void reload();
+}
@@ -0,0 +1,15 @@
+package com.skilltree.skilltreebackend.service;
+
+import com.skilltree.skilltreebackend.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Service interface for bulk user onboarding.
+ * Input is consumed line by line and written in chunks, so file size only affects the report.
+ */
+public interface UserImportService {
+    ImportReport importCsv(Reader input) throws IOException;
+    ImportReport importNdjson(Reader input) throws IOException;
+}
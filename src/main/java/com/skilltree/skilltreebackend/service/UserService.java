@@ -1,7 +1,9 @@
 package com.skilltree.skilltreebackend.service;
 
+import com.skilltree.skilltreebackend.dto.UserPage;
 import com.skilltree.skilltreebackend.model.User;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing User operations.
@@ -10,6 +12,8 @@ import java.util.List;
 public interface UserService {
     User createUser(User user);
     List<User> getAllUsers();
+    UserPage getUsersPage(String afterId, Integer limit);
+    void forEachUser(Consumer<User> action);
     User getUserById(String id);
     User updateUser(String id, User user);
     void deleteUser(String id);
@@ -17,4 +21,5 @@ public interface UserService {
     User findByEmail(String email);
     User login(String email, String password);
     boolean existsByEmail(String email); // Add this method
+    boolean existsByUsername(String username);
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.dto.UserPage;
+import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.service.ReactiveUserService;
+import com.skilltree.skilltreebackend.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Default ReactiveUserService: runs the blocking UserService on the subscribing thread,
+ * which for MVC controllers is the request's virtual thread, so behaviour matches the
+ * blocking endpoints exactly. A null result becomes an empty Mono.
+ */
+@Service
+@ConditionalOnProperty(name = "users.service.mode", havingValue = "blocking", matchIfMissing = true)
+public class BlockingReactiveUserService implements ReactiveUserService {
+
+    private final UserService userService;
+
+    public BlockingReactiveUserService(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public Mono<User> getUserById(String id) {
+        return Mono.fromCallable(() -> userService.getUserById(id));
+    }
+
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return Mono.fromCallable(() -> userService.findByEmail(email));
+    }
+
+    @Override
+    public Mono<User> findByUsername(String username) {
+        return Mono.fromCallable(() -> userService.findByUsername(username));
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        return Mono.fromCallable(() -> userService.existsByEmail(email));
+    }
+
+    @Override
+    public Mono<Boolean> existsByUsername(String username) {
+        return Mono.fromCallable(() -> userService.existsByUsername(username));
+    }
+
+    @Override
+    public Mono<UserPage> getUsersPage(String afterId, Integer limit) {
+        return Mono.fromCallable(() -> userService.getUsersPage(afterId, limit));
+    }
+
+    @Override
+    public Mono<User> login(String email, String password) {
+        return Mono.fromCallable(() -> userService.login(email, password));
+    }
+}
@@ -0,0 +1,51 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.cache.ChatReplyCache;
+import com.skilltree.skilltreebackend.service.ChatService;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * ChatService decorator that answers repeated prompts from {@link ChatReplyCache}.
+ * Only successful replies are stored; provider failures propagate uncached.
+ */
+public class CachingChatService implements ChatService {
+
+    private final ChatService delegate;
+    private final String mode;
+    private final ChatReplyCache cache;
+
+    public CachingChatService(ChatService delegate, String mode, ChatReplyCache cache) {
+        this.delegate = delegate;
+        this.mode = mode;
+        this.cache = cache;
+    }
+
+    @Override
+    public String chat(String node, String message) {
+        Optional<String> cached = cache.get(mode, node, message);
+        if (cached.isPresent()) return cached.get();
+
+        String reply = delegate.chat(node, message);
+        cache.put(mode, node, message, reply);
+        return reply;
+    }
+
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        Optional<String> cached = cache.get(mode, node, message);
+        if (cached.isPresent()) {
+            onDelta.accept(cached.get());
+            return;
+        }
+
+        StringBuilder reply = new StringBuilder();
+        delegate.stream(node, message, delta -> {
+            reply.append(delta);
+            onDelta.accept(delta);
+        });
+        cache.put(mode, node, message, reply.toString());
+    }
+}
@@ -0,0 +1,208 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.model.ChatPrimer;
+import com.skilltree.skilltreebackend.model.SkillNode;
+import com.skilltree.skilltreebackend.ratelimit.TokenBucket;
+import com.skilltree.skilltreebackend.repository.ChatPrimerRepository;
+import com.skilltree.skilltreebackend.service.ChatPrimerService;
+import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import com.skilltree.skilltreebackend.util.PromptKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ChatPrimerService that precomputes answers to the opening question of every skill node.
+ * A scheduled job walks the skill graph and asks the regular fast/deep pipelines, paced by a
+ * token bucket and at most chat.primer.max-parallelism calls at a time on virtual threads.
+ * Primers are stored in 'chat_primers' and mirrored in memory, so serving one is a map lookup.
+ */
+@Service
+public class ChatPrimerServiceImpl implements ChatPrimerService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPrimerServiceImpl.class);
+    private static final String[] MODES = {"fast", "deep"};
+
+    private final ChatPrimerRepository repository;
+    private final SkillTreeService skillTree;
+    private final Map<String, ChatService> services;
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final String question;
+    private final int version;
+    private final Duration ttl;
+    private final int maxParallelism;
+    private final TokenBucket pacing;
+
+    // normalized (mode, node id or title, question) -> primer
+    private final ConcurrentHashMap<String, ChatPrimer> primers = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ChatPrimerServiceImpl(
+            ChatPrimerRepository repository,
+            SkillTreeService skillTree,
+            @Qualifier("fastChat") ChatService fastChat,
+            @Qualifier("deepChatPrimary") ChatService deepChat,
+            @Qualifier("chatExecutor") ExecutorService executor,
+            @Value("${chat.primer.enabled:true}") boolean enabled,
+            @Value("${chat.primer.question:Explain this topic}") String question,
+            @Value("${chat.primer.version:1}") int version,
+            @Value("${chat.primer.ttl-hours:168}") long ttlHours,
+            @Value("${chat.primer.max-parallelism:4}") int maxParallelism,
+            @Value("${chat.primer.requests-per-minute:30}") long requestsPerMinute
+    ) {
+        this.repository = repository;
+        this.skillTree = skillTree;
+        // deep primers must come from Gemini itself, so the fast fallback is bypassed
+        this.services = Map.of("fast", fastChat, "deep", deepChat);
+        this.executor = executor;
+        this.enabled = enabled;
+        this.question = question;
+        this.version = version;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxParallelism = maxParallelism;
+        this.pacing = new TokenBucket(requestsPerMinute, maxParallelism);
+    }
+
+
+    /****************************************************
+     * SERVING
+     ****************************************************/
+    @Override
+    public Optional<String> find(String mode, String node, String message) {
+        if (!enabled || primers.isEmpty()) return Optional.empty();
+        ChatPrimer primer = primers.get(PromptKeys.normalize(mode, node, message));
+        if (primer == null || primer.getExpiresAt().isBefore(Instant.now())) return Optional.empty();
+        return Optional.of(primer.getReply());
+    }
+
+    // Requests may name the node by id or by title
+    private void index(ChatPrimer primer) {
+        primers.put(PromptKeys.normalize(primer.getMode(), primer.getNodeId(), question), primer);
+        if (primer.getNodeTitle() != null) {
+            primers.put(PromptKeys.normalize(primer.getMode(), primer.getNodeTitle(), question), primer);
+        }
+    }
+
+
+    /****************************************************
+     * GENERATION
+     ****************************************************/
+    @EventListener(ApplicationReadyEvent.class)
+    void loadStored() {
+        if (!enabled) return;
+        try {
+            List<ChatPrimer> stored = repository.findByVersion(version);
+            stored.forEach(this::index);
+            log.info("Loaded {} chat primers (version {})", stored.size(), version);
+            // First boot or a version bump: don't leave the cache cold until the nightly run
+            if (stored.isEmpty()) refresh();
+        } catch (RuntimeException e) {
+            log.warn("Could not load chat primers: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${chat.primer.cron:0 0 3 * * *}")
+    void scheduledRefresh() {
+        if (enabled) refresh();
+    }
+
+    @Override
+    public boolean refresh() {
+        if (!enabled || !running.compareAndSet(false, true)) return false;
+        executor.execute(() -> {
+            try {
+                generateAll();
+            } catch (RuntimeException e) {
+                log.error("Chat primer run failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void generateAll() {
+        Map<String, ChatPrimer> current = new HashMap<>();
+        for (ChatPrimer primer : repository.findByVersion(version)) current.put(primer.getId(), primer);
+
+        // Refresh a primer once three quarters of its TTL have passed, so it never lapses between runs
+        Instant refreshBefore = Instant.now().plus(ttl.dividedBy(4));
+        Semaphore slots = new Semaphore(maxParallelism);
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        for (SkillNode node : skillTree.getTree()) {
+            for (String mode : MODES) {
+                ChatPrimer existing = current.get(ChatPrimer.key(mode, node.getId()));
+                if (existing != null && existing.getExpiresAt().isAfter(refreshBefore)) continue;
+
+                awaitPacing();
+                slots.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        generate(mode, node);
+                        generated.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Could not generate {} primer for '{}': {}", mode, node.getId(), e.getMessage());
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        }
+        slots.acquireUninterruptibly(maxParallelism);   // wait for the last calls
+        slots.release(maxParallelism);
+        log.info("Chat primer run finished: {} generated, {} failed", generated.get(), failed.get());
+    }
+
+    private void generate(String mode, SkillNode node) {
+        String reply = services.get(mode).chat(node.getTitle(), question);
+
+        ChatPrimer primer = new ChatPrimer();
+        primer.setId(ChatPrimer.key(mode, node.getId()));
+        primer.setNodeId(node.getId());
+        primer.setNodeTitle(node.getTitle());
+        primer.setMode(mode);
+        primer.setQuestion(question);
+        primer.setReply(reply);
+        primer.setVersion(version);
+        primer.setGeneratedAt(Instant.now());
+        primer.setExpiresAt(primer.getGeneratedAt().plus(ttl));
+
+        repository.save(primer);
+        index(primer);
+    }
+
+    private void awaitPacing() {
+        long wait;
+        while ((wait = pacing.tryAcquire(1)) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while pacing primer generation", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.skilltree.skilltreebackend.exception.ResourceNotFoundException;
+import com.skilltree.skilltreebackend.model.ChatSession;
+import com.skilltree.skilltreebackend.model.ChatTurn;
+import com.skilltree.skilltreebackend.repository.ChatSessionRepository;
+import com.skilltree.skilltreebackend.service.ChatSessionService;
+import com.skilltree.skilltreebackend.util.TokenEstimator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * ChatSessionService implementation with a bounded in-memory store that spills to MongoDB.
+ * Active sessions live in Caffeine; evicted or idle ones are written to 'chat_sessions'
+ * synchronously as part of the eviction and read back on their next turn.
+ */
+@Service
+public class ChatSessionServiceImpl implements ChatSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatSessionServiceImpl.class);
+    private static final Pattern SESSION_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final ChatSessionRepository repository;
+    private final Cache<String, ChatSession> sessions;
+    private final int tokenBudget;
+    private final int summaryTokenBudget;
+    private final int maxTurns;
+
+    public ChatSessionServiceImpl(
+            ChatSessionRepository repository,
+            @Qualifier("chatExecutor") ExecutorService chatExecutor,
+            @Value("${chat.session.token-budget:1200}") int tokenBudget,
+            @Value("${chat.session.summary-token-budget:200}") int summaryTokenBudget,
+            @Value("${chat.session.max-turns:40}") int maxTurns,
+            @Value("${chat.session.memory-max-sessions:10000}") long memoryMaxSessions,
+            @Value("${chat.session.idle-minutes:30}") long idleMinutes
+    ) {
+        this.repository = repository;
+        this.tokenBudget = tokenBudget;
+        this.summaryTokenBudget = summaryTokenBudget;
+        this.maxTurns = maxTurns;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(memoryMaxSessions)
+                .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+                .executor(chatExecutor)
+                // Runs inside the eviction, before the key can miss, so the next get() finds the spilled copy
+                .evictionListener((String id, ChatSession session, RemovalCause cause) -> {
+                    if (session != null) spill(session);
+                })
+                .build();
+    }
+
+
+    /****************************************************
+     * OPEN / LOOKUP
+     ****************************************************/
+    @Override
+    public String open(String owner) {
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, new ChatSession(id, owner));
+        return id;
+    }
+
+    private ChatSession owned(String sessionId, String owner) {
+        ChatSession session = sessions.get(validate(sessionId), id -> repository.findById(id).orElse(null));
+        // Foreign sessions look exactly like missing ones, so ids cannot be probed
+        if (session == null || owner == null || !owner.equals(session.getOwner()))
+            throw new ResourceNotFoundException("Chat session not found.");
+        return session;
+    }
+
+
+    /****************************************************
+     * PROMPT WINDOWING
+     ****************************************************/
+    @Override
+    public String buildPrompt(String sessionId, String owner, String node, String message) {
+        ChatSession session = owned(sessionId, owner);
+
+        List<ChatTurn> turns;
+        String summary;
+        synchronized (session) {
+            turns = new ArrayList<>(session.getTurns());
+            summary = session.getSummary();
+        }
+
+        // Newest turns first, until the budget left after the current message is spent
+        int budget = tokenBudget - TokenEstimator.estimate(message);
+        Deque<ChatTurn> window = new ArrayDeque<>();
+        int oldestKept = turns.size();
+        while (oldestKept > 0 && turns.get(oldestKept - 1).getTokens() <= budget) {
+            ChatTurn turn = turns.get(--oldestKept);
+            budget -= turn.getTokens();
+            window.addFirst(turn);
+        }
+        String digest = summarize(summary, turns.subList(0, oldestKept));
+
+        StringBuilder prompt = new StringBuilder();
+        if (digest != null && !digest.isEmpty()) {
+            prompt.append("Earlier in this conversation: ").append(digest).append("\n\n");
+        }
+        if (!window.isEmpty()) {
+            prompt.append("Conversation so far:\n");
+            for (ChatTurn turn : window) {
+                prompt.append("user".equals(turn.getRole()) ? "User: " : "Assistant: ")
+                        .append(turn.getContent()).append('\n');
+            }
+            prompt.append('\n');
+        }
+        if (prompt.isEmpty()) return message;
+        return prompt.append("Current question: ").append(message).toString();
+    }
+
+
+    /****************************************************
+     * RECORD TURN
+     ****************************************************/
+    @Override
+    public void recordTurn(String sessionId, String owner, String node, String mode, String message, String reply) {
+        ChatSession session = owned(sessionId, owner);
+
+        // A single long answer must never crowd every other turn out of the window
+        int turnCap = Math.max(1, tokenBudget / 2);
+        synchronized (session) {
+            if (session.getTurns() == null) session.setTurns(new ArrayList<>());
+            List<ChatTurn> turns = session.getTurns();
+            turns.add(turn("user", message, turnCap));
+            turns.add(turn("assistant", reply, turnCap));
+
+            while (turns.size() > maxTurns) {
+                List<ChatTurn> oldest = turns.subList(0, 2);
+                session.setSummary(summarize(session.getSummary(), oldest));
+                oldest.clear();
+            }
+            session.setNode(node);
+            session.setMode(mode);
+            session.setUpdatedAt(Instant.now());
+        }
+    }
+
+
+    /****************************************************
+     * SPILL TO MONGO
+     ****************************************************/
+    @PreDestroy
+    public void flushAll() {
+        List<ChatSession> snapshots = sessions.asMap().values().stream().map(this::snapshot).toList();
+        if (!snapshots.isEmpty()) repository.saveAll(snapshots);
+    }
+
+    private void spill(ChatSession session) {
+        try {
+            repository.save(snapshot(session));
+        } catch (Exception e) {
+            log.warn("Failed to spill chat session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private ChatSession snapshot(ChatSession session) {
+        synchronized (session) {
+            ChatSession copy = new ChatSession(session.getId(), session.getOwner());
+            copy.setNode(session.getNode());
+            copy.setMode(session.getMode());
+            copy.setSummary(session.getSummary());
+            copy.setTurns(new ArrayList<>(session.getTurns()));
+            copy.setUpdatedAt(session.getUpdatedAt());
+            return copy;
+        }
+    }
+
+    /**
+     * Local, extractive digest: the first sentence of each dropped user question,
+     * appended to the existing summary and trimmed from the oldest end to the summary budget.
+     */
+    private String summarize(String summary, List<ChatTurn> dropped) {
+        StringBuilder digest = new StringBuilder(summary == null ? "" : summary);
+        for (ChatTurn turn : dropped) {
+            if (!"user".equals(turn.getRole()) || turn.getContent() == null) continue;
+            String question = firstSentence(turn.getContent());
+            if (question.isEmpty()) continue;
+            if (!digest.isEmpty()) digest.append("; ");
+            digest.append(TokenEstimator.truncate(question, 20));
+        }
+        int maxChars = summaryTokenBudget * 4;
+        if (digest.length() > maxChars) {
+            return "…" + digest.substring(digest.length() - maxChars);
+        }
+        return digest.toString();
+    }
+
+    private static String firstSentence(String text) {
+        String trimmed = text.strip();
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '.' || c == '?' || c == '!' || c == '\n') return trimmed.substring(0, i + 1).strip();
+        }
+        return trimmed;
+    }
+
+    private static ChatTurn turn(String role, String content, int turnCap) {
+        String text = TokenEstimator.truncate(content == null ? "" : content, turnCap);
+        return new ChatTurn(role, text, TokenEstimator.estimate(text));
+    }
+
+    private static String validate(String sessionId) {
+        if (sessionId == null || !SESSION_ID.matcher(sessionId).matches())
+            throw new IllegalArgumentException("Session id must be 1-64 letters, digits, '-' or '_'.");
+        return sessionId;
+    }
+}
@@ -0,0 +1,216 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.util.PromptKeys;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * ChatService decorator that collapses concurrent identical prompts into one upstream call.
+ * The first caller for a normalized (mode, node, message) key becomes the leader; everyone
+ * arriving while it runs shares its reply (or replays its stream). The in-flight entry is
+ * removed as soon as the leader finishes, fails or is cancelled.
+ */
+public class CoalescingChatService implements ChatService {
+
+    private final ChatService delegate;
+    private final String mode;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlightCalls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SharedStream> inFlightStreams = new ConcurrentHashMap<>();
+
+    public CoalescingChatService(ChatService delegate, String mode) {
+        this.delegate = delegate;
+        this.mode = mode;
+    }
+
+    @Override
+    public String chat(String node, String message) {
+        String key = PromptKeys.normalize(mode, node, message);
+
+        while (true) {
+            // Plain get() first: joining an existing call never touches a bin lock
+            CompletableFuture<String> call = inFlightCalls.get(key);
+            if (call == null) {
+                CompletableFuture<String> mine = new CompletableFuture<>();
+                call = inFlightCalls.putIfAbsent(key, mine);
+                if (call == null) return lead(key, mine, node, message);
+            }
+
+            try {
+                return call.join();
+            } catch (CancellationException e) {
+                // The leader was cancelled, not failed; retry and possibly lead ourselves
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        String key = PromptKeys.normalize(mode, node, message);
+
+        while (true) {
+            SharedStream shared = inFlightStreams.get(key);
+            if (shared == null) {
+                SharedStream mine = new SharedStream();
+                shared = inFlightStreams.putIfAbsent(key, mine);
+                if (shared == null) {
+                    leadStream(key, mine, node, message, onDelta);
+                    return;
+                }
+            }
+
+            try {
+                shared.follow(onDelta);
+                return;
+            } catch (CancellationException e) {
+                // The leader was cancelled before finishing; retry
+            }
+        }
+    }
+
+    private String lead(String key, CompletableFuture<String> call, String node, String message) {
+        try {
+            String reply = delegate.chat(node, message);
+            call.complete(reply);
+            return reply;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(isCancellation(e) ? new CancellationException("Leader cancelled") : e);
+            throw e;
+        } finally {
+            inFlightCalls.remove(key, call);
+        }
+    }
+
+    private void leadStream(String key, SharedStream shared, String node, String message,
+                            Consumer<String> onDelta) throws IOException {
+        RuntimeException ownFailure = null;
+        try {
+            // The leader's own client may disconnect; keep pumping while followers are attached
+            RuntimeException[] detached = new RuntimeException[1];
+            delegate.stream(node, message, delta -> {
+                shared.publish(delta);
+                if (detached[0] != null) return;
+                try {
+                    onDelta.accept(delta);
+                } catch (RuntimeException e) {
+                    if (!shared.hasFollowers()) throw e;
+                    detached[0] = e;
+                }
+            });
+            shared.finish(null);
+            ownFailure = detached[0];
+        } catch (IOException | RuntimeException | Error e) {
+            shared.finish(isCancellation(e) ? new CancellationException("Leader cancelled") : e);
+            throw e;
+        } finally {
+            inFlightStreams.remove(key, shared);
+        }
+        if (ownFailure != null) throw ownFailure;
+    }
+
+    private static boolean isCancellation(Throwable e) {
+        // Socket and call timeouts are InterruptedIOExceptions too, but those are real failures
+        if (Thread.currentThread().isInterrupted()) return true;
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof ClosedByInterruptException) return true;
+        }
+        return false;
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException e) return e;
+        if (cause instanceof Error e) throw e;
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Replayable record of one upstream stream. Followers first replay what was already
+     * published, then wait for new deltas. Uses a ReentrantLock so waiting virtual threads
+     * unmount instead of pinning their carrier.
+     */
+    private static final class SharedStream {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final List<String> deltas = new ArrayList<>();
+        private final AtomicInteger followers = new AtomicInteger();
+        private boolean done;
+        private Throwable failure;
+
+        void publish(String delta) {
+            lock.lock();
+            try {
+                deltas.add(delta);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void finish(Throwable failure) {
+            lock.lock();
+            try {
+                this.done = true;
+                this.failure = failure;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean hasFollowers() {
+            return followers.get() > 0;
+        }
+
+        void follow(Consumer<String> onDelta) throws IOException {
+            followers.incrementAndGet();
+            try {
+                int next = 0;
+                while (true) {
+                    String delta;
+                    lock.lock();
+                    try {
+                        while (next >= deltas.size() && !done) {
+                            changed.awaitUninterruptibly();
+                        }
+                        if (next < deltas.size()) {
+                            delta = deltas.get(next++);
+                        } else {
+                            rethrowFailure();
+                            return;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                    // Deliver outside the lock so a slow client never blocks the leader
+                    onDelta.accept(delta);
+                }
+            } finally {
+                followers.decrementAndGet();
+            }
+        }
+
+        private void rethrowFailure() throws IOException {
+            if (failure == null) return;
+            if (failure instanceof CancellationException e) throw e;
+            if (failure instanceof IOException e) throw e;
+            if (failure instanceof RuntimeException e) throw e;
+            if (failure instanceof Error e) throw e;
+            throw new UncheckedIOException(new IOException(failure));
+        }
+    }
+}
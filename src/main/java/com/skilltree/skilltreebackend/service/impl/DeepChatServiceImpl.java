@@ -1,135 +1,145 @@
 package com.skilltree.skilltreebackend.service.impl;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.skilltree.skilltreebackend.config.AIConfig;
+import com.skilltree.skilltreebackend.config.AIProvider;
+import com.skilltree.skilltreebackend.config.AITransport;
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.exception.ProviderBusyException;
+import com.skilltree.skilltreebackend.metrics.ChatMetrics;
+import com.skilltree.skilltreebackend.prompt.ChatRequestBodies;
 import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import com.skilltree.skilltreebackend.util.ChatResponseExtractor;
+import com.skilltree.skilltreebackend.util.SseUtils;
 import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service("deep")
 public class DeepChatServiceImpl implements ChatService {
 
-    private static final String API_URL =
-            "https://generativelanguage.googleapis.com/v1beta/models/gemini-pro:generateContent";
+    private static final Logger log = LoggerFactory.getLogger(DeepChatServiceImpl.class);
+    private static final String MODELS_PATH = "v1beta/models/";
 
     private final AIConfig config;
-    private final OkHttpClient client = new OkHttpClient();
-
-    public DeepChatServiceImpl(AIConfig config) {
+    private final AITransport transport;
+    private final ChatRequestBodies requestBodies;
+    private final ChatMetrics metrics;
+    private final SkillTreeService skillTree;
+    private final HttpUrl apiUrl;
+    private final HttpUrl streamApiUrl;
+
+    public DeepChatServiceImpl(AIConfig config, AITransport transport, ChatRequestBodies requestBodies,
+                               ChatMetrics metrics, SkillTreeService skillTree) {
         this.config = config;
+        this.transport = transport;
+        this.requestBodies = requestBodies;
+        this.metrics = metrics;
+        this.skillTree = skillTree;
+        this.apiUrl = HttpUrl.get(config.getBaseUrl(AIProvider.GEMINI) + MODELS_PATH + config.getGeminiModel() + ":generateContent");
+        this.streamApiUrl = HttpUrl.get(config.getBaseUrl(AIProvider.GEMINI) + MODELS_PATH + config.getGeminiModel() + ":streamGenerateContent");
     }
 
     @Override
     public String chat(String node, String message) {
         String geminiKey = config.getGeminiKey();
         if (geminiKey == null || geminiKey.isBlank()) {
-            return "Deep mode unavailable: GEMINI_API_KEY not configured.";
+            metrics.error(AIProvider.GEMINI, "not_configured");
+            throw new AIProviderException(AIProvider.GEMINI, "Deep mode unavailable: GEMINI_API_KEY not configured.");
         }
 
-        String bodyJson = String.format("""
-            {
-              "contents": [{
-                "parts": [{
-                  "text": "SkillTree Deep Mode. Node: %s\\nMessage: %s"
-                }]
-              }],
-              "maxOutputTokens": 1200,
-              "temperature": 0.2
-            }
-            """, safe(node), safe(message));
-
-        HttpUrl url = HttpUrl.parse(API_URL).newBuilder()
-                .addQueryParameter("key", geminiKey)
-                .build();
-
-        RequestBody body = RequestBody.create(bodyJson, MediaType.get("application/json"));
-
-        Request request = new Request.Builder()
-                .url(url)
-                .post(body)
-                .build();
+        Request request = buildRequest(geminiKey, node, message, false);
 
-        try (Response response = client.newCall(request).execute()) {
-            if (response.body() == null) return "Empty response from Deep AI.";
-            String json = response.body().string();
+        long start = System.nanoTime();
+        try (Response response = transport.execute(AIProvider.GEMINI, request, false)) {
+            metrics.upstream(AIProvider.GEMINI, false, response.code(), start);
+            if (response.body() == null) {
+                metrics.empty(AIProvider.GEMINI);
+                throw new AIProviderException(AIProvider.GEMINI, "Empty response from Deep AI.");
+            }
+            if (!response.isSuccessful()) {
+                metrics.error(AIProvider.GEMINI, ChatMetrics.httpCause(response.code()));
+                throw new AIProviderException(AIProvider.GEMINI,
+                        "Deep AI returned HTTP " + response.code(), null, response.code());
+            }
 
-            // Gemini responses vary; try common extraction points
-            return extractBestText(json).orElse("Deep AI returned no usable text.");
+            long parseStart = System.nanoTime();
+            ChatResponseExtractor.Reply reply = ChatResponseExtractor.extractReply(response.body().source()).orElse(null);
+            metrics.parsed(AIProvider.GEMINI, parseStart);
+            if (reply == null) {
+                metrics.empty(AIProvider.GEMINI);
+                throw new AIProviderException(AIProvider.GEMINI, "Deep AI returned no usable text.");
+            }
+            metrics.tokens(AIProvider.GEMINI, reply.promptTokens(), reply.completionTokens());
+            return reply.text();
+        } catch (ProviderBusyException e) {
+            metrics.error(AIProvider.GEMINI, e);
+            throw e;
         } catch (IOException e) {
-            e.printStackTrace();
-            return "Error calling Deep AI: " + e.getMessage();
+            metrics.error(AIProvider.GEMINI, e);
+            log.warn("Deep AI call failed: {}", e.toString());
+            throw new AIProviderException(AIProvider.GEMINI, "Error calling Deep AI: " + e.getMessage(), e);
         }
     }
 
-    private static String safe(String s) {
-        return s == null ? "" : s.replace("\"", "\\\"");
-    }
-
-    /**
-     * Try multiple places commonly used by providers to return text.
-     */
-    private Optional<String> extractBestText(String json) {
-        try {
-            JsonElement root = JsonParser.parseString(json);
-            if (!root.isJsonObject()) return Optional.empty();
-            JsonObject obj = root.getAsJsonObject();
-
-            // 1) google-style: candidates or output->candidates
-            if (obj.has("candidates") && obj.get("candidates").isJsonArray()) {
-                JsonArray cands = obj.getAsJsonArray("candidates");
-                if (cands.size() > 0) {
-                    JsonObject first = cands.get(0).getAsJsonObject();
-                    if (first.has("content")) return Optional.of(getAsString(first.get("content")));
-                    if (first.has("text")) return Optional.of(getAsString(first.get("text")));
-                }
-            }
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        String geminiKey = config.getGeminiKey();
+        if (geminiKey == null || geminiKey.isBlank()) {
+            metrics.error(AIProvider.GEMINI, "not_configured");
+            throw new AIProviderException(AIProvider.GEMINI, "Deep mode unavailable: GEMINI_API_KEY not configured.");
+        }
 
-            // 2) maybe under "output" -> "contents" -> parts -> text
-            if (obj.has("output") && obj.get("output").isJsonObject()) {
-                JsonObject output = obj.getAsJsonObject("output");
-                if (output.has("contents") && output.get("contents").isJsonArray()) {
-                    JsonArray contents = output.getAsJsonArray("contents");
-                    if (contents.size() > 0) {
-                        JsonObject first = contents.get(0).getAsJsonObject();
-                        if (first.has("text")) return Optional.of(getAsString(first.get("text")));
-                        if (first.has("content")) return Optional.of(getAsString(first.get("content")));
-                    }
-                }
+        Request request = buildRequest(geminiKey, node, message, true);
+
+        long start = System.nanoTime();
+        boolean[] received = {false};
+        int status = 0;
+        try (Response response = transport.execute(AIProvider.GEMINI, request, true)) {
+            status = response.code();
+            metrics.upstream(AIProvider.GEMINI, true, status, start);
+            ResponseBody body = response.body();
+            // Same typed failure as chat(), so the breaker and retry policy classify it by status
+            if (!response.isSuccessful()) {
+                metrics.error(AIProvider.GEMINI, ChatMetrics.httpCause(status));
+                throw new AIProviderException(AIProvider.GEMINI,
+                        "Deep AI stream failed with HTTP " + status, null, status);
             }
-
-            // 3) fallback to choices -> message -> content (OpenAI-like)
-            if (obj.has("choices") && obj.get("choices").isJsonArray()) {
-                JsonArray choices = obj.getAsJsonArray("choices");
-                if (choices.size() > 0) {
-                    JsonObject first = choices.get(0).getAsJsonObject();
-                    if (first.has("message") && first.get("message").isJsonObject()) {
-                        JsonObject msg = first.getAsJsonObject("message");
-                        if (msg.has("content")) return Optional.of(getAsString(msg.get("content")));
-                        if (msg.has("text")) return Optional.of(getAsString(msg.get("text")));
-                    }
-                    if (first.has("text")) return Optional.of(getAsString(first.get("text")));
-                }
+            if (body == null) {
+                metrics.empty(AIProvider.GEMINI);
+                throw new AIProviderException(AIProvider.GEMINI, "Empty stream from Deep AI.");
             }
-
-            // 4) direct text/content fields
-            if (obj.has("text")) return Optional.of(getAsString(obj.get("text")));
-            if (obj.has("content")) return Optional.of(getAsString(obj.get("content")));
-
-        } catch (Exception ex) {
-            // ignore and fallback
+            // With alt=sse every event is a partial GenerateContentResponse
+            SseUtils.forEachData(body.source(), chunk -> ChatResponseExtractor.extract(chunk)
+                    .filter(text -> !text.isEmpty())
+                    .ifPresent(delta -> {
+                        received[0] = true;
+                        onDelta.accept(delta);
+                    }));
+        } catch (ProviderBusyException e) {
+            metrics.error(AIProvider.GEMINI, e);
+            throw e;
+        } catch (IOException e) {
+            metrics.error(AIProvider.GEMINI, ChatMetrics.causeOf(e));
+            throw e;
         }
-        return Optional.empty();
+        if (!received[0]) metrics.empty(AIProvider.GEMINI);
     }
 
-    private static String getAsString(JsonElement el) {
-        if (el == null || el.isJsonNull()) return "";
-        if (el.isJsonPrimitive()) return el.getAsString();
-        return el.toString();
+    private Request buildRequest(String geminiKey, String node, String message, boolean stream) {
+        HttpUrl.Builder url = (stream ? streamApiUrl : apiUrl).newBuilder()
+                .addQueryParameter("key", geminiKey);
+        if (stream) {
+            url.addQueryParameter("alt", "sse");
+        }
+
+        return new Request.Builder()
+                .url(url.build())
+                .post(requestBodies.gemini(skillTree.getCategory(node), node, message))
+                .build();
     }
 }
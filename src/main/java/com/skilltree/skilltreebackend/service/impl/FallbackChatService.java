@@ -0,0 +1,55 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.exception.RateLimitExceededException;
+import com.skilltree.skilltreebackend.service.ChatService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * ChatService decorator that degrades to another mode when the primary one fails,
+ * e.g. answers deep-mode questions with fast mode while Gemini's breaker is open or its quota is used up.
+ * Sits above the reply cache so degraded answers are cached under the fallback mode only.
+ */
+public class FallbackChatService implements ChatService {
+
+    private static final Logger log = LoggerFactory.getLogger(FallbackChatService.class);
+
+    private final ChatService primary;
+    private final ChatService fallback;
+    private final String mode;
+
+    public FallbackChatService(ChatService primary, ChatService fallback, String mode) {
+        this.primary = primary;
+        this.fallback = fallback;
+        this.mode = mode;
+    }
+
+    @Override
+    public String chat(String node, String message) {
+        try {
+            return primary.chat(node, message);
+        } catch (AIProviderException | RateLimitExceededException e) {
+            log.info("Chat mode '{}' degraded to fallback: {}", mode, e.getMessage());
+            return fallback.chat(node, message);
+        }
+    }
+
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        boolean[] started = new boolean[1];
+        try {
+            primary.stream(node, message, delta -> {
+                started[0] = true;
+                onDelta.accept(delta);
+            });
+        } catch (AIProviderException | RateLimitExceededException | IOException e) {
+            if (started[0]) throw e;
+            log.info("Chat mode '{}' stream degraded to fallback: {}", mode, e.getMessage());
+            fallback.stream(node, message, onDelta);
+        }
+    }
+}
@@ -1,115 +1,138 @@
 package com.skilltree.skilltreebackend.service.impl;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.skilltree.skilltreebackend.config.AIConfig;
+import com.skilltree.skilltreebackend.config.AIProvider;
+import com.skilltree.skilltreebackend.config.AITransport;
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.exception.ProviderBusyException;
+import com.skilltree.skilltreebackend.metrics.ChatMetrics;
+import com.skilltree.skilltreebackend.prompt.ChatRequestBodies;
 import com.skilltree.skilltreebackend.service.ChatService;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import com.skilltree.skilltreebackend.util.ChatResponseExtractor;
+import com.skilltree.skilltreebackend.util.SseUtils;
 import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service("fast")
 public class FastChatServiceImpl implements ChatService {
 
-    private static final String API_URL = "https://api.groq.com/openai/v1/chat/completions";
-    private final AIConfig config;
-    private final OkHttpClient client = new OkHttpClient();
+    private static final Logger log = LoggerFactory.getLogger(FastChatServiceImpl.class);
+    private static final String COMPLETIONS_PATH = "openai/v1/chat/completions";
 
-    public FastChatServiceImpl(AIConfig config) {
+    private final AIConfig config;
+    private final AITransport transport;
+    private final ChatRequestBodies requestBodies;
+    private final ChatMetrics metrics;
+    private final SkillTreeService skillTree;
+    private final String apiUrl;
+
+    public FastChatServiceImpl(AIConfig config, AITransport transport, ChatRequestBodies requestBodies,
+                               ChatMetrics metrics, SkillTreeService skillTree) {
         this.config = config;
+        this.transport = transport;
+        this.requestBodies = requestBodies;
+        this.metrics = metrics;
+        this.skillTree = skillTree;
+        this.apiUrl = config.getBaseUrl(AIProvider.GROQ) + COMPLETIONS_PATH;
     }
 
     @Override
     public String chat(String node, String message) {
         String groqKey = config.getGroqKey();
         if (groqKey == null || groqKey.isBlank()) {
-            return "Fast mode unavailable: GROQ_API_KEY not configured.";
+            metrics.error(AIProvider.GROQ, "not_configured");
+            throw new AIProviderException(AIProvider.GROQ, "Fast mode unavailable: GROQ_API_KEY not configured.");
         }
 
-        String bodyJson = String.format("""
-            {
-              "model": "llama3-70b",
-              "messages": [
-                {"role": "system", "content": "You are SkillTree AI. Be clear, concise and educational."},
-                {"role": "user", "content": "Node: %s\\nMessage: %s"}
-              ],
-              "max_tokens": 800,
-              "temperature": 0.2
-            }
-            """, safe(node), safe(message));
+        Request request = buildRequest(groqKey, node, message, false);
 
-        RequestBody body = RequestBody.create(bodyJson, MediaType.get("application/json"));
-
-        Request request = new Request.Builder()
-                .url(API_URL)
-                .header("Authorization", "Bearer " + groqKey)
-                .post(body)
-                .build();
+        long start = System.nanoTime();
+        try (Response response = transport.execute(AIProvider.GROQ, request, false)) {
+            metrics.upstream(AIProvider.GROQ, false, response.code(), start);
+            if (response.body() == null) {
+                metrics.empty(AIProvider.GROQ);
+                throw new AIProviderException(AIProvider.GROQ, "Empty response from Fast AI.");
+            }
+            if (!response.isSuccessful()) {
+                metrics.error(AIProvider.GROQ, ChatMetrics.httpCause(response.code()));
+                throw new AIProviderException(AIProvider.GROQ,
+                        "Fast AI returned HTTP " + response.code(), null, response.code());
+            }
 
-        try (Response response = client.newCall(request).execute()) {
-            if (response.body() == null) return "Empty response from Fast AI.";
-            String json = response.body().string();
-            return extractBestText(json).orElse("Fast AI returned no usable text.");
+            long parseStart = System.nanoTime();
+            ChatResponseExtractor.Reply reply = ChatResponseExtractor.extractReply(response.body().source()).orElse(null);
+            metrics.parsed(AIProvider.GROQ, parseStart);
+            if (reply == null) {
+                metrics.empty(AIProvider.GROQ);
+                throw new AIProviderException(AIProvider.GROQ, "Fast AI returned no usable text.");
+            }
+            metrics.tokens(AIProvider.GROQ, reply.promptTokens(), reply.completionTokens());
+            return reply.text();
+        } catch (ProviderBusyException e) {
+            metrics.error(AIProvider.GROQ, e);
+            throw e;
         } catch (IOException e) {
-            e.printStackTrace();
-            return "Error calling Fast AI: " + e.getMessage();
+            metrics.error(AIProvider.GROQ, e);
+            log.warn("Fast AI call failed: {}", e.toString());
+            throw new AIProviderException(AIProvider.GROQ, "Error calling Fast AI: " + e.getMessage(), e);
         }
     }
 
-    private static String safe(String s) {
-        return s == null ? "" : s.replace("\"", "\\\"");
-    }
-
-    /**
-     * Robustly try to extract text from various chat-completion JSON shapes.
-     */
-    private Optional<String> extractBestText(String json) {
-        try {
-            JsonElement root = JsonParser.parseString(json);
-            if (!root.isJsonObject()) return Optional.empty();
-            JsonObject obj = root.getAsJsonObject();
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        String groqKey = config.getGroqKey();
+        if (groqKey == null || groqKey.isBlank()) {
+            metrics.error(AIProvider.GROQ, "not_configured");
+            throw new AIProviderException(AIProvider.GROQ, "Fast mode unavailable: GROQ_API_KEY not configured.");
+        }
 
-            // 1) Standard OpenAI-style: choices[0].message.content
-            if (obj.has("choices") && obj.get("choices").isJsonArray()) {
-                JsonArray choices = obj.getAsJsonArray("choices");
-                if (choices.size() > 0) {
-                    JsonObject first = choices.get(0).getAsJsonObject();
-                    // message -> content
-                    if (first.has("message") && first.get("message").isJsonObject()) {
-                        JsonObject msg = first.getAsJsonObject("message");
-                        if (msg.has("content")) return Optional.of(getAsString(msg.get("content")));
-                        if (msg.has("text")) return Optional.of(getAsString(msg.get("text")));
-                    }
-                    // text (older APIs)
-                    if (first.has("text")) return Optional.of(getAsString(first.get("text")));
-                }
+        Request request = buildRequest(groqKey, node, message, true);
+
+        long start = System.nanoTime();
+        boolean[] received = {false};
+        int status = 0;
+        try (Response response = transport.execute(AIProvider.GROQ, request, true)) {
+            status = response.code();
+            metrics.upstream(AIProvider.GROQ, true, status, start);
+            ResponseBody body = response.body();
+            // Same typed failure as chat(), so the breaker and retry policy classify it by status
+            if (!response.isSuccessful()) {
+                metrics.error(AIProvider.GROQ, ChatMetrics.httpCause(status));
+                throw new AIProviderException(AIProvider.GROQ,
+                        "Fast AI stream failed with HTTP " + status, null, status);
             }
-
-            // 2) direct field "text" or "content"
-            if (obj.has("text")) return Optional.of(getAsString(obj.get("text")));
-            if (obj.has("content")) return Optional.of(getAsString(obj.get("content")));
-
-            // 3) Try nested candidates array (some providers)
-            if (obj.has("candidates") && obj.get("candidates").isJsonArray()) {
-                JsonArray cands = obj.getAsJsonArray("candidates");
-                if (cands.size() > 0) {
-                    JsonObject first = cands.get(0).getAsJsonObject();
-                    if (first.has("content")) return Optional.of(getAsString(first.get("content")));
-                }
+            if (body == null) {
+                metrics.empty(AIProvider.GROQ);
+                throw new AIProviderException(AIProvider.GROQ, "Empty stream from Fast AI.");
             }
-        } catch (Exception ex) {
-            // fallthrough
+            // Groq streams OpenAI-style chunks: choices[0].delta.content
+            SseUtils.forEachData(body.source(), chunk -> ChatResponseExtractor.extract(chunk)
+                    .filter(text -> !text.isEmpty())
+                    .ifPresent(delta -> {
+                        received[0] = true;
+                        onDelta.accept(delta);
+                    }));
+        } catch (ProviderBusyException e) {
+            metrics.error(AIProvider.GROQ, e);
+            throw e;
+        } catch (IOException e) {
+            metrics.error(AIProvider.GROQ, ChatMetrics.causeOf(e));
+            throw e;
         }
-        return Optional.empty();
+        if (!received[0]) metrics.empty(AIProvider.GROQ);
     }
 
-    private static String getAsString(JsonElement el) {
-        if (el == null || el.isJsonNull()) return "";
-        if (el.isJsonPrimitive()) return el.getAsString();
-        return el.toString();
+    private Request buildRequest(String groqKey, String node, String message, boolean stream) {
+        return new Request.Builder()
+                .url(apiUrl)
+                .header("Authorization", "Bearer " + groqKey)
+                .post(requestBodies.groq(skillTree.getCategory(node), node, message, stream))
+                .build();
     }
 }
@@ -0,0 +1,80 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.model.User;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind for users' lastLogin.
+ * Logins only record the timestamp in memory (repeated logins of one user coalesce);
+ * a flush sends one $max update per user in a single unordered bulk write, and never
+ * rewrites the rest of the document. Pending timestamps are flushed on shutdown.
+ */
+@Component
+public class LastLoginWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LastLoginWriter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void record(String userId, LocalDateTime lastLogin) {
+        pending.merge(userId, lastLogin, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${users.last-login.flush-interval-ms:1000}")
+    void scheduledFlush() {
+        if (!pending.isEmpty()) flush();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    void flush() {
+        flushLock.lock();
+        try {
+            List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>();
+            for (String id : pending.keySet()) {
+                LocalDateTime time = pending.remove(id);
+                if (time != null) batch.add(Map.entry(id, time));
+            }
+            if (batch.isEmpty()) return;
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            for (Map.Entry<String, LocalDateTime> entry : batch) {
+                // $max keeps a later timestamp if one was already written
+                ops.updateOne(Query.query(Criteria.where("_id").is(entry.getKey())), new Update().max("lastLogin", entry.getValue()));
+            }
+            try {
+                ops.execute();
+            } catch (RuntimeException e) {
+                batch.forEach(entry -> record(entry.getKey(), entry.getValue()));
+                log.warn("lastLogin flush failed, requeued {} updates: {}", batch.size(), e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
+import com.skilltree.skilltreebackend.service.PasswordHashingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a fixed pool of platform threads with a bounded queue, so a signup or
+ * login storm uses at most {@code parallelism} cores instead of every request's virtual thread.
+ * A full queue, or a task that waits longer than {@code wait-timeout-ms}, fails fast with 503.
+ *
+ * - password.hash.duration  time spent hashing (timer, histogram), tag: op = encode|matches
+ * - password.hash.wait      time a task sat in the queue (timer)
+ * - password.hash.rejected  tasks refused because the pool was saturated, tag: reason
+ * - password.hash.queued / password.hash.active  current queue depth and busy workers (gauges)
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long waitTimeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejectedFull;
+    private final Counter rejectedTimeout;
+
+    public PasswordHashingServiceImpl(
+            BCryptPasswordEncoder encoder,
+            MeterRegistry registry,
+            @Value("${password.hashing.cost:10}") int cost,
+            @Value("${password.hashing.parallelism:0}") int parallelism,
+            @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${password.hashing.wait-timeout-ms:2000}") long waitTimeoutMs
+    ) {
+        this.encoder = encoder;
+        this.cost = cost;
+        this.waitTimeoutMs = waitTimeoutMs;
+
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreads(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.prestartAllCoreThreads();
+
+        this.encodeTimer = durationTimer(registry, "encode");
+        this.matchesTimer = durationTimer(registry, "matches");
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("Time a hashing task waited for a worker")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+        this.rejectedFull = Counter.builder("password.hash.rejected")
+                .description("Hashing tasks refused because the pool was saturated")
+                .tag("reason", "queue_full")
+                .register(registry);
+        this.rejectedTimeout = Counter.builder("password.hash.rejected")
+                .description("Hashing tasks refused because the pool was saturated")
+                .tag("reason", "timeout")
+                .register(registry);
+        Gauge.builder("password.hash.queued", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently hashing")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) return false;
+        return run(() -> encoder.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * True when the stored hash was made with a different cost than the configured one
+     * (in either direction), so a successful login can transparently re-hash it.
+     */
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        int stored = costOf(encodedPassword);
+        return stored > 0 && stored != cost;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> work, Timer timer) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedFull.increment();
+            throw busy();
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedTimeout.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private HashingCapacityException busy() {
+        long retryAfter = Math.max(1, Duration.ofMillis(waitTimeoutMs).toSeconds());
+        return new HashingCapacityException("Server is busy, please try again shortly.", retryAfter);
+    }
+
+    /**
+     * Reads the cost from a "$2a$10$..." hash; 0 if the hash is not in that form.
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') return 0;
+        int sep = encodedPassword.indexOf('$', 1);
+        if (sep < 0 || sep + 3 >= encodedPassword.length() || encodedPassword.charAt(sep + 3) != '$') return 0;
+        char tens = encodedPassword.charAt(sep + 1);
+        char ones = encodedPassword.charAt(sep + 2);
+        if (!Character.isDigit(tens) || !Character.isDigit(ones)) return 0;
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    private static Timer durationTimer(MeterRegistry registry, String op) {
+        return Timer.builder("password.hash.duration")
+                .description("Time spent in BCrypt")
+                .tag("op", op)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
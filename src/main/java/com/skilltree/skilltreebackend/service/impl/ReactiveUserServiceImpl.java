@@ -0,0 +1,173 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.availability.UserAvailabilityIndex;
+import com.skilltree.skilltreebackend.cache.UserCache;
+import com.skilltree.skilltreebackend.dto.UserPage;
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
+import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.service.PasswordHashingService;
+import com.skilltree.skilltreebackend.service.ReactiveUserService;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ReactiveUserService on the reactive Mongo driver (users.service.mode=reactive).
+ * Database calls complete on driver callbacks instead of parking a thread per request, so
+ * many more requests can be in flight per pooled connection. It shares the profile cache,
+ * Bloom filter and lastLogin write-behind with UserServiceImpl; only BCrypt, which is CPU
+ * work behind the bounded hashing pool, is handed to boundedElastic.
+ */
+@Service
+@ConditionalOnProperty(name = "users.service.mode", havingValue = "reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final PasswordHashingService passwordHasher;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final UserCache userCache;
+    private final LastLoginWriter lastLoginWriter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveUserServiceImpl(
+            ReactiveMongoTemplate mongoTemplate,
+            PasswordHashingService passwordHasher,
+            UserAvailabilityIndex availabilityIndex,
+            UserCache userCache,
+            LastLoginWriter lastLoginWriter,
+            @Value("${users.page.default-size:50}") int defaultPageSize,
+            @Value("${users.page.max-size:200}") int maxPageSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordHasher = passwordHasher;
+        this.availabilityIndex = availabilityIndex;
+        this.userCache = userCache;
+        this.lastLoginWriter = lastLoginWriter;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public Mono<User> getUserById(String id) {
+        if (id == null || id.isBlank()) return Mono.empty();
+        User cached = userCache.peekById(id);
+        if (cached != null) return Mono.just(cached);
+        long stamp = userCache.writeStamp();
+        return mongoTemplate.findOne(withoutPassword(new Query(Criteria.where("_id").is(id))), User.class)
+                .doOnNext(user -> userCache.putIfUnchanged(user, stamp));
+    }
+
+    @Override
+    public Mono<User> findByEmail(String email) {
+        if (email == null || email.isBlank()) return Mono.empty();
+        String lowerEmail = email.toLowerCase(Locale.ROOT);
+        User cached = userCache.peekByEmail(lowerEmail);
+        if (cached != null) return Mono.just(cached);
+        long stamp = userCache.writeStamp();
+        return mongoTemplate.findOne(withoutPassword(new Query(Criteria.where("email").is(lowerEmail))), User.class)
+                .doOnNext(user -> userCache.putIfUnchanged(user, stamp));
+    }
+
+    @Override
+    public Mono<User> findByUsername(String username) {
+        if (username == null || username.isBlank()) return Mono.empty();
+        User cached = userCache.peekByUsername(username);
+        if (cached != null) return Mono.just(cached);
+        long stamp = userCache.writeStamp();
+        return mongoTemplate.findOne(withoutPassword(new Query(Criteria.where("username").is(username))), User.class)
+                .doOnNext(user -> userCache.putIfUnchanged(user, stamp));
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        if (email == null || email.isBlank()) return Mono.just(false);
+        String lowerEmail = email.toLowerCase();
+        if (!availabilityIndex.mightHaveEmail(lowerEmail)) return Mono.just(false);
+        return mongoTemplate.exists(new Query(Criteria.where("email").is(lowerEmail)), User.class);
+    }
+
+    @Override
+    public Mono<Boolean> existsByUsername(String username) {
+        if (username == null || username.isBlank()) return Mono.just(false);
+        if (!availabilityIndex.mightHaveUsername(username)) return Mono.just(false);
+        return mongoTemplate.exists(new Query(Criteria.where("username").is(username)), User.class);
+    }
+
+    @Override
+    public Mono<UserPage> getUsersPage(String afterId, Integer limit) {
+        int size = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        Query query = new Query();
+        if (afterId != null && !afterId.isBlank()) {
+            if (!ObjectId.isValid(afterId))
+                return Mono.error(new IllegalArgumentException("Invalid cursor: " + afterId));
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+
+        return mongoTemplate.find(withoutPassword(query), User.class)
+                .collectList()
+                .map(users -> {
+                    if (users.size() <= size) return new UserPage(users, null);
+                    List<User> page = users.subList(0, size);
+                    return new UserPage(page, page.get(size - 1).getId());
+                });
+    }
+
+    @Override
+    public Mono<User> login(String email, String password) {
+        if (email == null || email.isBlank())
+            return Mono.error(new IllegalArgumentException("Email cannot be empty."));
+        if (password == null || password.isBlank())
+            return Mono.error(new IllegalArgumentException("Password cannot be empty."));
+
+        // The whole document in one read: it is the credential check and the profile returned
+        long stamp = userCache.writeStamp();
+        return mongoTemplate.findOne(new Query(Criteria.where("email").is(email.toLowerCase(Locale.ROOT))), User.class)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No user found with this email.")))
+                .flatMap(account -> Mono.fromCallable(() -> passwordHasher.matches(password, account.getPassword()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(matches -> matches
+                                ? rehashIfNeeded(account, password).thenReturn(account)
+                                : Mono.error(new RuntimeException("Invalid password."))))
+                .map(account -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    lastLoginWriter.record(account.getId(), now);
+                    account.setLastLogin(now);
+                    userCache.updateLastLogin(account.getId(), now);
+                    userCache.putIfUnchanged(account, stamp);
+                    account.setPassword(null);
+                    return account;
+                });
+    }
+
+    // Same best-effort policy as UserServiceImpl: skipped when the hashing pool is busy
+    private Mono<Void> rehashIfNeeded(User account, String password) {
+        if (!passwordHasher.needsRehash(account.getPassword())) return Mono.empty();
+        Query unchanged = new Query(Criteria.where("_id").is(account.getId())
+                .and("password").is(account.getPassword()));
+        return Mono.fromCallable(() -> passwordHasher.encode(password))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(rehashed -> mongoTemplate.updateFirst(unchanged, new Update().set("password", rehashed), User.class))
+                .onErrorResume(HashingCapacityException.class, e -> Mono.empty())
+                .then();
+    }
+
+    private static Query withoutPassword(Query query) {
+        query.fields().exclude("password");
+        return query;
+    }
+}
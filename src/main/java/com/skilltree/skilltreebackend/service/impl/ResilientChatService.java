@@ -0,0 +1,201 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.config.AIProvider;
+import com.skilltree.skilltreebackend.config.AITransport;
+import com.skilltree.skilltreebackend.exception.AIProviderException;
+import com.skilltree.skilltreebackend.ratelimit.ChatRateLimiter;
+import com.skilltree.skilltreebackend.resilience.CircuitBreaker;
+import com.skilltree.skilltreebackend.resilience.ProviderResilience;
+import com.skilltree.skilltreebackend.resilience.RetryBudget;
+import com.skilltree.skilltreebackend.service.ChatService;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ChatService decorator that guards one provider with a circuit breaker, budgeted
+ * jittered retries and (optionally) a hedged second request once a call runs past p95.
+ * While the breaker is open calls fail immediately instead of waiting on the OkHttp timeout.
+ * Every request it sends, hedges and retries included, is charged to the provider's shared quota.
+ */
+public class ResilientChatService implements ChatService {
+
+    private final ChatService delegate;
+    private final AIProvider provider;
+    private final ProviderResilience resilience;
+    private final ExecutorService executor;
+    private final ChatRateLimiter rateLimiter;
+
+    public ResilientChatService(ChatService delegate, AIProvider provider, ProviderResilience resilience,
+                                ExecutorService executor, ChatRateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.provider = provider;
+        this.resilience = resilience;
+        this.executor = executor;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public String chat(String node, String message) {
+        CircuitBreaker breaker = resilience.breaker(provider);
+        RetryBudget budget = resilience.retryBudget(provider);
+        budget.deposit();
+
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.tryAcquire()) throw unavailable();
+
+            long start = System.nanoTime();
+            try {
+                rateLimiter.acquireUpstream(provider, node, message);
+                String reply = resilience.isHedgeEnabled() ? hedgedChat(node, message, budget) : delegate.chat(node, message);
+                breaker.onSuccess();
+                resilience.latency(provider).record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return reply;
+            } catch (AIProviderException e) {
+                if (!e.isRetryable()) {
+                    // The provider answered; the problem is the request or our configuration
+                    breaker.onIgnored();
+                    throw e;
+                }
+                breaker.onFailure();
+                if (attempt >= resilience.getMaxRetries() || !budget.tryWithdraw()) throw e;
+                backoff(attempt + 1, e);
+            } catch (RuntimeException | Error e) {
+                // Includes ProviderBusyException and an exhausted provider quota (RateLimitExceededException):
+                // neither says anything about the provider's health, and neither is retried
+                breaker.onIgnored();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void stream(String node, String message, Consumer<String> onDelta) throws IOException {
+        CircuitBreaker breaker = resilience.breaker(provider);
+        RetryBudget budget = resilience.retryBudget(provider);
+        budget.deposit();
+
+        for (int attempt = 0; ; attempt++) {
+            if (!breaker.tryAcquire()) throw unavailable();
+
+            boolean[] started = new boolean[1];
+            try {
+                rateLimiter.acquireUpstream(provider, node, message);
+                delegate.stream(node, message, delta -> {
+                    started[0] = true;
+                    onDelta.accept(delta);
+                });
+                breaker.onSuccess();
+                return;
+            } catch (IOException e) {
+                breaker.onFailure();
+                // Once text reached the client a retry would duplicate it
+                if (started[0] || attempt >= resilience.getMaxRetries() || !budget.tryWithdraw()) throw e;
+                backoff(attempt + 1, new AIProviderException(provider, e.getMessage(), e));
+            } catch (AIProviderException e) {
+                if (!e.isRetryable()) {
+                    breaker.onIgnored();
+                    throw e;
+                }
+                breaker.onFailure();
+                if (started[0] || attempt >= resilience.getMaxRetries() || !budget.tryWithdraw()) throw e;
+                backoff(attempt + 1, e);
+            } catch (RuntimeException | Error e) {
+                // Includes ProviderBusyException and an exhausted provider quota (RateLimitExceededException):
+                // neither says anything about the provider's health, and neither is retried
+                breaker.onIgnored();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sends a second identical request if the first has not answered within the hedge delay
+     * and returns whichever succeeds first. Hedges are paid for from the retry budget.
+     * Once one request succeeds the other is cancelled, so it stops holding a connection and slot.
+     */
+    private String hedgedChat(String node, String message, RetryBudget budget) {
+        long hedgeAfter = resilience.hedgeDelayMillis(provider);
+        if (hedgeAfter < 0) return delegate.chat(node, message);
+
+        AITransport.Cancellation primaryCall = new AITransport.Cancellation();
+        CompletableFuture<String> primary = cancellableChat(node, message, primaryCall);
+        try {
+            return primary.get(hedgeAfter, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!budget.tryWithdraw() || !rateLimiter.tryAcquireUpstream(provider, node, message)) return join(primary);
+            AITransport.Cancellation hedgeCall = new AITransport.Cancellation();
+            CompletableFuture<String> hedge = cancellableChat(node, message, hedgeCall);
+            // Only a success cancels the other request; if one fails the other may still answer
+            primary.thenRun(hedgeCall::cancel);
+            hedge.thenRun(primaryCall::cancel);
+            return join(firstSuccessful(primary, hedge));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            primaryCall.cancel();
+            Thread.currentThread().interrupt();
+            throw new AIProviderException(provider, "Interrupted waiting for AI reply.", e);
+        }
+    }
+
+    private CompletableFuture<String> cancellableChat(String node, String message, AITransport.Cancellation cancellation) {
+        return CompletableFuture.supplyAsync(
+                () -> AITransport.withCancellation(cancellation, () -> delegate.chat(node, message)), executor);
+    }
+
+    private static CompletableFuture<String> firstSuccessful(CompletableFuture<String> a, CompletableFuture<String> b) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        a.whenComplete((reply, error) -> settle(result, failures, reply, error));
+        b.whenComplete((reply, error) -> settle(result, failures, reply, error));
+        return result;
+    }
+
+    private static void settle(CompletableFuture<String> result, AtomicInteger failures, String reply, Throwable error) {
+        if (error == null) {
+            result.complete(reply);
+        } else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private RuntimeException unwrap(Throwable error) {
+        Throwable t = error;
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof RuntimeException e) return e;
+        if (t instanceof Error e) throw e;
+        return new AIProviderException(provider, "Error calling AI: " + t.getMessage(), t);
+    }
+
+    private void backoff(int attempt, AIProviderException lastFailure) {
+        try {
+            Thread.sleep(resilience.backoffMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lastFailure;
+        }
+    }
+
+    private AIProviderException unavailable() {
+        return new AIProviderException(provider,
+                provider + " is temporarily unavailable, please try again shortly.");
+    }
+}
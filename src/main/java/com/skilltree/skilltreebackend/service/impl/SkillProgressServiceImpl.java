@@ -0,0 +1,386 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.skilltree.skilltreebackend.model.SkillProgress;
+import com.skilltree.skilltreebackend.repository.SkillProgressRepository;
+import com.skilltree.skilltreebackend.service.SkillProgressService;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SkillProgressService with write-behind persistence.
+ * Progress events are coalesced per (user, node) in memory and flushed to 'skill_progress'
+ * as unordered bulk upserts when the buffer reaches the batch size, on a fixed interval,
+ * and on shutdown. Reads merge persisted documents with the pending and in-flight deltas.
+ *
+ * Pending deltas live in numbered generations indexed by user. A flush swaps the buffer
+ * generation out under a brief lock and writes it without holding any lock; every upsert
+ * stamps the document with this instance and the generation number, so a read that races
+ * the write can tell per document whether a delta is already in Mongo and counts it once.
+ */
+@Service
+public class SkillProgressServiceImpl implements SkillProgressService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillProgressServiceImpl.class);
+
+    // A racing upsert on the same _id; the next attempt finds the document and updates it
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final SkillProgressRepository repository;
+    private final SkillTreeService skillTreeService;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxPending;
+
+    // Generation numbers are only compared with this instance's own stamps, so a restart starts over safely
+    private final String instanceId = UUID.randomUUID().toString();
+    // Guards the generation references: records and read snapshots share it, swaps and requeues take it briefly
+    private final ReentrantReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private volatile Generation buffer = new Generation(1);
+    // Taken from the buffer by the running flush and not yet acknowledged by Mongo
+    private volatile Generation inFlight = new Generation(0);
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    public SkillProgressServiceImpl(
+            MongoTemplate mongoTemplate,
+            SkillProgressRepository repository,
+            SkillTreeService skillTreeService,
+            @Qualifier("chatExecutor") ExecutorService executor,
+            @Value("${skill.progress.flush-batch-size:500}") int batchSize,
+            @Value("${skill.progress.max-pending:20000}") int maxPending
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.repository = repository;
+        this.skillTreeService = skillTreeService;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+    }
+
+
+    /****************************************************
+     * RECORDING (memory only on the request path)
+     ****************************************************/
+    @Override
+    public void recordVisit(String userId, String nodeId) {
+        record(userId, nodeId, new PendingProgress(userId, nodeId, 0, false, Instant.now(), null));
+    }
+
+    @Override
+    public void recordAttempt(String userId, String nodeId) {
+        record(userId, nodeId, new PendingProgress(userId, nodeId, 1, false, Instant.now(), null));
+    }
+
+    @Override
+    public void markCompleted(String userId, String nodeId) {
+        Instant now = Instant.now();
+        record(userId, nodeId, new PendingProgress(userId, nodeId, 0, true, now, now));
+    }
+
+    private void record(String userId, String nodeId, PendingProgress delta) {
+        skillTreeService.getNode(nodeId);   // 404 for unknown nodes, served from the in-memory graph
+
+        int size;
+        generationLock.readLock().lock();
+        try {
+            // Under the shared lock so a concurrent swap cannot strand the delta in a drained generation
+            size = buffer.merge(delta);
+        } finally {
+            generationLock.readLock().unlock();
+        }
+
+        if (size >= maxPending) {
+            // Mongo is not keeping up: push back on the caller instead of growing without bound
+            flush();
+        } else if (size >= batchSize && flushQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushQueued.set(false);
+                }
+            });
+        }
+    }
+
+
+    /****************************************************
+     * READS
+     ****************************************************/
+    @Override
+    public List<SkillProgress> getProgress(String userId) {
+        long inFlightSeq, bufferSeq;
+        Map<String, PendingProgress> inFlightDeltas, bufferDeltas;
+        generationLock.readLock().lock();
+        try {
+            inFlightSeq = inFlight.seq;
+            inFlightDeltas = inFlight.deltasOf(userId);
+            bufferSeq = buffer.seq;
+            bufferDeltas = buffer.deltasOf(userId);
+        } finally {
+            generationLock.readLock().unlock();
+        }
+
+        Map<String, SkillProgress> byNode = new HashMap<>();
+        for (SkillProgress progress : repository.findByUserId(userId)) {
+            byNode.put(progress.getNodeId(), progress);
+        }
+        applyPending(userId, inFlightDeltas, inFlightSeq, byNode);
+        applyPending(userId, bufferDeltas, bufferSeq, byNode);
+        return new ArrayList<>(byNode.values());
+    }
+
+    private void applyPending(String userId, Map<String, PendingProgress> deltas, long seq, Map<String, SkillProgress> byNode) {
+        for (PendingProgress pending : deltas.values()) {
+            SkillProgress progress = byNode.get(pending.nodeId());
+            if (progress == null) {
+                progress = new SkillProgress(userId, pending.nodeId());
+                byNode.put(pending.nodeId(), progress);
+            } else if (instanceId.equals(progress.getFlushedBy()) && progress.getFlushSeq() >= seq) {
+                continue;   // this generation's write already reached the document
+            }
+            pending.applyTo(progress);
+        }
+    }
+
+    @Override
+    public List<String> getUnlockable(String userId) {
+        List<String> completed = new ArrayList<>();
+        for (SkillProgress progress : getProgress(userId)) {
+            if (progress.isCompleted()) completed.add(progress.getNodeId());
+        }
+        return skillTreeService.getUnlockable(completed);
+    }
+
+
+    /****************************************************
+     * FLUSHING
+     ****************************************************/
+    @Scheduled(fixedDelayString = "${skill.progress.flush-interval-ms:2000}")
+    void scheduledFlush() {
+        if (buffer.size() > 0) flush();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        int written = flush();
+        int left = buffer.size();
+        if (left > 0) log.warn("Discarding {} unflushed progress updates on shutdown", left);
+        else if (written > 0) log.info("Flushed {} progress updates on shutdown", written);
+    }
+
+    /**
+     * Swaps the buffer out and writes it as bulk upserts of at most batchSize operations each.
+     * Only the swap and the final requeue hold the generation lock; the Mongo round trips do not.
+     * Drained updates stay visible to reads until the flush ends. Updates that fail transiently
+     * are merged back into the buffer for the next flush; updates Mongo rejects outright are
+     * logged and dropped.
+     * @return Number of updates written
+     */
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            Generation drained;
+            generationLock.writeLock().lock();
+            try {
+                drained = buffer;
+                if (drained.size() == 0) return 0;
+                buffer = new Generation(drained.seq + 1);
+                inFlight = drained;
+            } finally {
+                generationLock.writeLock().unlock();
+            }
+
+            List<PendingProgress> pending = drained.all();
+            List<PendingProgress> retry = new ArrayList<>();
+            int written = 0;
+            try {
+                for (int from = 0; from < pending.size(); from += batchSize) {
+                    written += write(pending.subList(from, Math.min(from + batchSize, pending.size())), drained.seq, retry);
+                }
+            } finally {
+                // One step, so a read sees a retried delta in the old generation or the new one, never both
+                generationLock.writeLock().lock();
+                try {
+                    retry.forEach(buffer::merge);
+                    inFlight = new Generation(0);
+                } finally {
+                    generationLock.writeLock().unlock();
+                }
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int write(List<PendingProgress> batch, long seq, List<PendingProgress> retry) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SkillProgress.class);
+        for (PendingProgress pending : batch) {
+            Update update = pending.toUpdate().set("flushedBy", instanceId).set("flushSeq", seq);
+            ops.upsert(Query.query(Criteria.where("_id").is(key(pending))), update);
+        }
+
+        try {
+            ops.execute();
+            return batch.size();
+        } catch (BulkOperationException e) {
+            // Unordered: everything except the reported indexes was applied
+            int requeued = 0;
+            for (BulkWriteError error : e.getErrors()) {
+                PendingProgress pending = batch.get(error.getIndex());
+                if (error.getCode() == DUPLICATE_KEY) {
+                    retry.add(pending);
+                    requeued++;
+                } else {
+                    log.error("Dropping progress update {} rejected by Mongo: {}", key(pending), error.getMessage());
+                }
+            }
+            log.warn("Progress flush: {} of {} upserts failed, {} requeued", e.getErrors().size(), batch.size(), requeued);
+            return batch.size() - e.getErrors().size();
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                retry.addAll(batch);
+                log.warn("Progress flush failed, requeued {} updates: {}", batch.size(), e.getMessage());
+            } else {
+                log.error("Progress flush failed permanently, dropped {} updates", batch.size(), e);
+            }
+            return 0;
+        }
+    }
+
+    // Connectivity and timeouts clear up on their own; anything else would fail the same way again
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException;
+    }
+
+    private static String key(PendingProgress pending) {
+        return SkillProgress.key(pending.userId(), pending.nodeId());
+    }
+
+
+    /**
+     * One numbered set of pending deltas, indexed userId -> nodeId so a read only touches its own user.
+     */
+    private static final class Generation {
+
+        final long seq;
+        private final ConcurrentHashMap<String, ConcurrentHashMap<String, PendingProgress>> byUser = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        Generation(long seq) {
+            this.seq = seq;
+        }
+
+        /**
+         * @return Number of (user, node) entries after the merge
+         */
+        int merge(PendingProgress delta) {
+            boolean[] added = new boolean[1];
+            byUser.computeIfAbsent(delta.userId(), user -> new ConcurrentHashMap<>())
+                    .compute(delta.nodeId(), (node, current) -> {
+                        if (current != null) return current.merge(delta);
+                        added[0] = true;
+                        return delta;
+                    });
+            return added[0] ? size.incrementAndGet() : size.get();
+        }
+
+        int size() {
+            return size.get();
+        }
+
+        Map<String, PendingProgress> deltasOf(String userId) {
+            Map<String, PendingProgress> deltas = byUser.get(userId);
+            return deltas == null ? Map.of() : new HashMap<>(deltas);
+        }
+
+        List<PendingProgress> all() {
+            List<PendingProgress> all = new ArrayList<>(size.get());
+            for (Map<String, PendingProgress> deltas : byUser.values()) all.addAll(deltas.values());
+            return all;
+        }
+    }
+
+    /**
+     * Coalesced, not-yet-persisted progress for one (user, node).
+     * Merging is commutative so requeued deltas can be combined with newer ones in any order.
+     */
+    private record PendingProgress(String userId, String nodeId, int attempts, boolean completed,
+                                   Instant lastVisited, Instant completedAt) {
+
+        PendingProgress merge(PendingProgress other) {
+            return new PendingProgress(userId, nodeId,
+                    attempts + other.attempts,
+                    completed || other.completed,
+                    later(lastVisited, other.lastVisited),
+                    earlier(completedAt, other.completedAt));
+        }
+
+        Update toUpdate() {
+            Update update = new Update()
+                    .setOnInsert("userId", userId)
+                    .setOnInsert("nodeId", nodeId);
+            if (attempts > 0) update.inc("attempts", attempts);
+            if (lastVisited != null) update.max("lastVisited", lastVisited);
+            if (completed) {
+                update.set("completed", true);
+                update.min("completedAt", completedAt);
+            } else {
+                update.setOnInsert("completed", false);
+            }
+            return update;
+        }
+
+        void applyTo(SkillProgress progress) {
+            progress.setAttempts(progress.getAttempts() + attempts);
+            progress.setLastVisited(later(progress.getLastVisited(), lastVisited));
+            if (completed) {
+                progress.setCompleted(true);
+                progress.setCompletedAt(earlier(progress.getCompletedAt(), completedAt));
+            }
+        }
+
+        private static Instant later(Instant a, Instant b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isAfter(b) ? a : b;
+        }
+
+        private static Instant earlier(Instant a, Instant b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isBefore(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.exception.ResourceNotFoundException;
+import com.skilltree.skilltreebackend.graph.SkillGraph;
+import com.skilltree.skilltreebackend.model.SkillNode;
+import com.skilltree.skilltreebackend.repository.SkillNodeRepository;
+import com.skilltree.skilltreebackend.service.SkillTreeService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of SkillTreeService.
+ * The whole tree is held as an immutable SkillGraph; readers grab the current snapshot
+ * without locking, writers build and validate a replacement before persisting and swapping it in.
+ */
+@Service
+public class SkillTreeServiceImpl implements SkillTreeService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillTreeServiceImpl.class);
+
+    private final SkillNodeRepository skillNodeRepository;
+    private final AtomicReference<SkillGraph> graph = new AtomicReference<>(SkillGraph.empty());
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public SkillTreeServiceImpl(SkillNodeRepository skillNodeRepository) {
+        this.skillNodeRepository = skillNodeRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Serve an empty tree rather than failing startup; an edit or reload fixes it later
+            log.error("Could not load skill tree, starting empty", e);
+        }
+    }
+
+    /************************************************
+     * Reads (snapshot only, no Mongo round trips)
+     ************************************************/
+
+    @Override
+    public List<SkillNode> getTree() {
+        return graph.get().nodes();
+    }
+
+    @Override
+    public SkillNode getNode(String id) {
+        SkillNode node = graph.get().get(id);
+        if (node == null) throw new ResourceNotFoundException("Skill node not found with id: " + id);
+        return node;
+    }
+
+    @Override
+    public String getCategory(String idOrTitle) {
+        return graph.get().categoryOf(idOrTitle);
+    }
+
+    @Override
+    public List<String> getAncestors(String id) {
+        SkillGraph current = graph.get();
+        requireNode(current, id);
+        return current.ancestors(id);
+    }
+
+    @Override
+    public List<String> getDescendants(String id) {
+        SkillGraph current = graph.get();
+        requireNode(current, id);
+        return current.descendants(id);
+    }
+
+    @Override
+    public List<String> getUnlockable(Collection<String> completed) {
+        return graph.get().unlockable(completed);
+    }
+
+    /************************************************
+     * Edits (validated against a candidate snapshot)
+     ************************************************/
+
+    @Override
+    public SkillNode saveNode(SkillNode node) {
+        writeLock.lock();
+        try {
+            List<SkillNode> nodes = new ArrayList<>(graph.get().nodes());
+            nodes.removeIf(existing -> existing.getId().equals(node.getId()));
+            nodes.add(node);
+            SkillGraph candidate = SkillGraph.build(nodes);   // rejects cycles and dangling prerequisites
+
+            SkillNode saved = skillNodeRepository.save(node);
+            graph.set(candidate);
+            return saved;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteNode(String id) {
+        writeLock.lock();
+        try {
+            SkillGraph current = graph.get();
+            requireNode(current, id);
+            List<String> dependents = current.descendants(id);
+            if (!dependents.isEmpty())
+                throw new IllegalArgumentException("Skill node '" + id + "' is a prerequisite of " + dependents);
+
+            List<SkillNode> nodes = new ArrayList<>(current.nodes());
+            nodes.removeIf(existing -> existing.getId().equals(id));
+            SkillGraph candidate = SkillGraph.build(nodes);
+
+            skillNodeRepository.deleteById(id);
+            graph.set(candidate);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void reload() {
+        writeLock.lock();
+        try {
+            SkillGraph loaded = SkillGraph.build(skillNodeRepository.findAll());
+            graph.set(loaded);
+            log.info("Loaded skill tree with {} nodes", loaded.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void requireNode(SkillGraph current, String id) {
+        if (!current.contains(id)) throw new ResourceNotFoundException("Skill node not found with id: " + id);
+    }
+}
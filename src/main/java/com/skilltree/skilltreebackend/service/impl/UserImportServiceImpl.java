@@ -0,0 +1,278 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.skilltree.skilltreebackend.availability.UserAvailabilityIndex;
+import com.skilltree.skilltreebackend.dto.ImportReport;
+import com.skilltree.skilltreebackend.dto.ImportRowResult;
+import com.skilltree.skilltreebackend.exception.DuplicateUserException;
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
+import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.search.UserSearchIndex;
+import com.skilltree.skilltreebackend.service.PasswordHashingService;
+import com.skilltree.skilltreebackend.service.UserImportService;
+import com.skilltree.skilltreebackend.util.Csv;
+import com.skilltree.skilltreebackend.util.DuplicateKeys;
+import com.skilltree.skilltreebackend.util.PasswordPolicy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk onboarding: rows are read lazily, validated once, hashed a few at a time on the shared
+ * hashing pool, and inserted per chunk with one unordered bulk write. Uniqueness is left to
+ * the unique indexes on username/email; their E11000 errors become per-row DUPLICATE results.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String CREATED = "CREATED";
+    private static final String INVALID = "INVALID";
+    private static final String DUPLICATE = "DUPLICATE";
+    private static final String FAILED = "FAILED";
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordHashingService passwordHasher;
+    private final UserAvailabilityIndex availabilityIndex;
+    private final UserSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int hashConcurrency;
+
+    public UserImportServiceImpl(
+            MongoTemplate mongoTemplate,
+            PasswordHashingService passwordHasher,
+            UserAvailabilityIndex availabilityIndex,
+            UserSearchIndex searchIndex,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${users.import.chunk-size:500}") int chunkSize,
+            @Value("${users.import.hash-concurrency:2}") int hashConcurrency
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordHasher = passwordHasher;
+        this.availabilityIndex = availabilityIndex;
+        this.searchIndex = searchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.hashConcurrency = hashConcurrency;
+    }
+
+    /**
+     * One parsed input line; error is set when it could not even be turned into a User.
+     */
+    private record Row(long line, User user, String error) {}
+
+    @Override
+    public ImportReport importCsv(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        String header = reader.readLine();
+        List<ImportRowResult> results = new ArrayList<>();
+        if (header == null) return report(results);
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = Csv.parseLine(header);
+        for (int i = 0; i < names.size(); i++)
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        if (!columns.containsKey("username") || !columns.containsKey("email") || !columns.containsKey("password")
+                || !columns.containsKey("fullname"))
+            throw new IllegalArgumentException("CSV header must include username, email, password and fullName columns.");
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long line = 1;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            chunk.add(csvRow(line, Csv.parseLine(text), columns));
+            if (chunk.size() >= chunkSize) writeChunk(chunk, results);
+        }
+        writeChunk(chunk, results);
+        return report(results);
+    }
+
+    @Override
+    public ImportReport importNdjson(Reader input) throws IOException {
+        BufferedReader reader = new BufferedReader(input);
+        List<ImportRowResult> results = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            try {
+                chunk.add(new Row(line, objectMapper.readValue(text, User.class), null));
+            } catch (JsonProcessingException e) {
+                chunk.add(new Row(line, null, "Malformed JSON"));
+            }
+            if (chunk.size() >= chunkSize) writeChunk(chunk, results);
+        }
+        writeChunk(chunk, results);
+        return report(results);
+    }
+
+    private static Row csvRow(long line, List<String> fields, Map<String, Integer> columns) {
+        User user = new User();
+        user.setUsername(column(fields, columns, "username"));
+        user.setEmail(column(fields, columns, "email"));
+        user.setPassword(column(fields, columns, "password"));
+        user.setFullName(column(fields, columns, "fullname"));
+        String dateOfBirth = column(fields, columns, "dateofbirth");
+        if (dateOfBirth != null) {
+            try {
+                user.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                return new Row(line, user, "dateOfBirth must be yyyy-MM-dd");
+            }
+        }
+        return new Row(line, user, null);
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) return null;
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Validates, hashes and inserts one chunk, appends its results in input order and clears it.
+     */
+    private void writeChunk(List<Row> chunk, List<ImportRowResult> results) {
+        if (chunk.isEmpty()) return;
+        ImportRowResult[] outcome = new ImportRowResult[chunk.size()];
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                outcome[i] = result(row, INVALID, null, error);
+                continue;
+            }
+            User user = row.user();
+            user.setId(new ObjectId().toHexString());
+            user.setUsername(user.getUsername().trim());
+            user.setEmail(user.getEmail().trim().toLowerCase(Locale.ROOT));
+            user.setCreatedAt(now);
+            user.setActive(true);
+            valid.add(i);
+        }
+
+        hashPasswords(chunk, valid, outcome);
+
+        List<Integer> inserting = new ArrayList<>(valid.size());
+        List<User> documents = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            if (outcome[i] != null) continue;   // hashing was refused
+            inserting.add(i);
+            documents.add(chunk.get(i).user());
+        }
+
+        if (!documents.isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            ops.insert(documents);
+            try {
+                ops.execute();
+            } catch (BulkOperationException e) {
+                for (BulkWriteError error : e.getErrors()) {
+                    int i = inserting.get(error.getIndex());
+                    outcome[i] = error.getCode() == DuplicateKeys.DUPLICATE_KEY_CODE
+                            ? result(chunk.get(i), DUPLICATE, null, duplicateMessage(error.getMessage()))
+                            : result(chunk.get(i), FAILED, null, error.getMessage());
+                }
+            } catch (DataAccessException e) {
+                log.warn("Bulk user import chunk failed: {}", e.getMessage());
+                for (int i : inserting)
+                    outcome[i] = result(chunk.get(i), FAILED, null, "Database write failed");
+            }
+            for (int i : inserting) {
+                if (outcome[i] != null) continue;
+                User user = chunk.get(i).user();
+                availabilityIndex.onUserCreated(user);
+                searchIndex.onUserSaved(user);
+                outcome[i] = result(chunk.get(i), CREATED, user.getId(), null);
+            }
+        }
+
+        for (ImportRowResult result : outcome) results.add(result);
+        chunk.clear();
+    }
+
+    private void hashPasswords(List<Row> chunk, List<Integer> valid, ImportRowResult[] outcome) {
+        // A few concurrent submitters keep the import from monopolising the shared hashing queue
+        try (ExecutorService submitters = Executors.newFixedThreadPool(hashConcurrency, Thread.ofVirtual().factory())) {
+            for (int i : valid) {
+                Row row = chunk.get(i);
+                submitters.execute(() -> {
+                    try {
+                        row.user().setPassword(passwordHasher.encode(row.user().getPassword()));
+                    } catch (HashingCapacityException e) {
+                        outcome[i] = result(row, FAILED, null, "Server busy, retry this row");
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * The checks registration applies: the User bean constraints (@Valid) and the password policy.
+     */
+    private String validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        return PasswordPolicy.violations(user.getPassword());
+    }
+
+    private static String duplicateMessage(String message) {
+        return new DuplicateUserException(DuplicateKeys.field(message)).getMessage();
+    }
+
+    private static ImportRowResult result(Row row, String status, String id, String error) {
+        String username = row.user() == null ? null : row.user().getUsername();
+        return new ImportRowResult(row.line(), username, status, id, error);
+    }
+
+    private static ImportReport report(List<ImportRowResult> results) {
+        long created = 0;
+        for (ImportRowResult result : results)
+            if (CREATED.equals(result.getStatus())) created++;
+        return new ImportReport(results.size(), created, results.size() - created, results);
+    }
+}
@@ -1,18 +1,33 @@
 package com.skilltree.skilltreebackend.service.impl;
 
+import com.skilltree.skilltreebackend.availability.UserAvailabilityIndex;
+import com.skilltree.skilltreebackend.cache.UserCache;
+import com.skilltree.skilltreebackend.dto.UserPage;
+import com.skilltree.skilltreebackend.exception.DuplicateUserException;
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
 import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.search.UserSearchIndex;
+import com.skilltree.skilltreebackend.service.PasswordHashingService;
 import com.skilltree.skilltreebackend.service.UserService;
+import com.skilltree.skilltreebackend.util.DuplicateKeys;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * UserService implementation for managing User CRUD, authentication,
@@ -25,11 +40,30 @@ public class UserServiceImpl implements UserService {
     private MongoTemplate mongoTemplate;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHasher;
+
+    @Autowired
+    private UserAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${users.page.max-size:200}")
+    private int maxPageSize;
 
 
     /****************************************************
      * CREATE USER
+     * A single insert; the unique indexes reject duplicate usernames/emails.
      ****************************************************/
     @Override
     public User createUser(User user) {
@@ -50,13 +84,22 @@ public class UserServiceImpl implements UserService {
         user.setEmail(user.getEmail().toLowerCase());
 
         // Hash password
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
 
         // Timestamps
         user.setCreatedAt(LocalDateTime.now());
         user.setLastLogin(null);
 
-        return mongoTemplate.save(user);
+        User saved;
+        try {
+            saved = mongoTemplate.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateUserException(DuplicateKeys.field(e.getMessage()));
+        }
+        availabilityIndex.onUserCreated(saved);
+        searchIndex.onUserSaved(saved);
+        userCache.put(saved);
+        return saved;
     }
 
 
@@ -65,43 +108,106 @@ public class UserServiceImpl implements UserService {
      ****************************************************/
     @Override
     public List<User> getAllUsers() {
-        return mongoTemplate.findAll(User.class);
+        return mongoTemplate.find(withoutPassword(new Query()), User.class);
+    }
+
+    /**
+     * Keyset pagination on _id: each page is an index range scan, however deep the client goes.
+     * @param afterId Cursor from the previous page, or null for the first page
+     * @param limit Page size, capped at users.page.max-size
+     */
+    @Override
+    public UserPage getUsersPage(String afterId, Integer limit) {
+        int size = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        Query query = new Query();
+        if (afterId != null && !afterId.isBlank()) {
+            if (!ObjectId.isValid(afterId))
+                throw new IllegalArgumentException("Invalid cursor: " + afterId);
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        // One extra document tells us whether another page exists
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(size + 1);
+
+        List<User> users = mongoTemplate.find(withoutPassword(query), User.class);
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            nextCursor = users.get(size - 1).getId();
+        }
+        return new UserPage(users, nextCursor);
+    }
+
+    /**
+     * Walks every user on a server-side cursor, so memory stays constant regardless of collection size.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        Query query = withoutPassword(new Query().with(Sort.by(Sort.Direction.ASC, "_id")));
+        query.cursorBatchSize(500);
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            users.forEach(action);
+        }
+    }
+
+    // The bcrypt hash never needs to leave the database for listings
+    private static Query withoutPassword(Query query) {
+        query.fields().exclude("password");
+        return query;
     }
 
     @Override
     public User getUserById(String id) {
         if (id == null || id.isBlank()) return null;
-        return mongoTemplate.findById(id, User.class);
+        return userCache.getById(id, key -> mongoTemplate.findOne(
+                withoutPassword(new Query(Criteria.where("_id").is(key))), User.class));
     }
 
 
     /****************************************************
      * UPDATE USER
+     * One targeted update; the document is never re-read or rewritten whole.
      ****************************************************/
     @Override
     public User updateUser(String id, User updated) {
         if (id == null || id.isBlank()) return null;
 
-        User existingUser = getUserById(id);
-        if (existingUser == null)
-            return null;
+        Update update = new Update();
 
         if (updated.getUsername() != null)
-            existingUser.setUsername(updated.getUsername());
+            update.set("username", updated.getUsername());
 
         if (updated.getEmail() != null)
-            existingUser.setEmail(updated.getEmail().toLowerCase());
+            update.set("email", updated.getEmail().toLowerCase());
 
         if (updated.getPassword() != null)
-            existingUser.setPassword(passwordEncoder.encode(updated.getPassword()));
+            update.set("password", passwordHasher.encode(updated.getPassword()));
 
         if (updated.getDateOfBirth() != null)
-            existingUser.setDateOfBirth(updated.getDateOfBirth());
+            update.set("dateOfBirth", updated.getDateOfBirth());
 
         // Update last modified timestamp
-        existingUser.setLastLogin(LocalDateTime.now());
+        update.set("lastLogin", LocalDateTime.now());
+
+        User saved;
+        try {
+            saved = mongoTemplate.findAndModify(
+                    withoutPassword(new Query(Criteria.where("_id").is(id))),
+                    update,
+                    FindAndModifyOptions.options().returnNew(true),
+                    User.class
+            );
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateUserException(DuplicateKeys.field(e.getMessage()));
+        }
+        userCache.invalidate(id);
+        if (saved == null)
+            return null;
 
-        return mongoTemplate.save(existingUser);
+        availabilityIndex.onUserCreated(saved);   // new email/username must test positive
+        searchIndex.onUserSaved(saved);
+        userCache.put(saved);
+        return saved;
     }
 
 
@@ -111,9 +217,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(String id) {
         if (id == null || id.isBlank()) return;
-        User user = getUserById(id);
-        if (user != null)
-            mongoTemplate.remove(user);
+        long deleted = mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), User.class).getDeletedCount();
+        userCache.invalidate(id);
+        if (deleted > 0) {
+            availabilityIndex.onUserDeleted();
+            searchIndex.onUserDeleted(id);
+        }
     }
 
 
@@ -122,10 +231,12 @@ public class UserServiceImpl implements UserService {
      ****************************************************/
     @Override
     public User findByUsername(String username) {
-        return mongoTemplate.findOne(
-                new Query(Criteria.where("username").is(username)),
+        if (username == null || username.isBlank()) return null;
+
+        return userCache.getByUsername(username, () -> mongoTemplate.findOne(
+                withoutPassword(new Query(Criteria.where("username").is(username))),
                 User.class
-        );
+        ));
     }
 
     @Override
@@ -133,15 +244,17 @@ public class UserServiceImpl implements UserService {
         if (email == null || email.isBlank()) return null;
 
         String lowerEmail = Objects.requireNonNull(email).toLowerCase(Locale.ROOT);
-        return mongoTemplate.findOne(
-                new Query(Criteria.where("email").is(lowerEmail)),
+        return userCache.getByEmail(lowerEmail, () -> mongoTemplate.findOne(
+                withoutPassword(new Query(Criteria.where("email").is(lowerEmail))),
                 User.class
-        );
+        ));
     }
 
 
     /****************************************************
      * LOGIN
+     * One indexed read of the whole document, which also warms the profile cache;
+     * lastLogin is written behind.
      ****************************************************/
     @Override
     public User login(String email, String password) {
@@ -152,30 +265,65 @@ public class UserServiceImpl implements UserService {
         if (password == null || password.isBlank())
             throw new IllegalArgumentException("Password cannot be empty.");
 
-        User user = findByEmail(email);
+        long stamp = userCache.writeStamp();
+        User account = mongoTemplate.findOne(
+                new Query(Criteria.where("email").is(email.toLowerCase(Locale.ROOT))), User.class);
 
-        if (user == null)
+        if (account == null)
             throw new RuntimeException("No user found with this email.");
 
-        if (!passwordEncoder.matches(password, user.getPassword()))
+        if (!passwordHasher.matches(password, account.getPassword()))
             throw new RuntimeException("Invalid password.");
 
+        rehashIfNeeded(account, password);
+
         // update last login time
-        user.setLastLogin(LocalDateTime.now());
-        mongoTemplate.save(user);
+        LocalDateTime now = LocalDateTime.now();
+        lastLoginWriter.record(account.getId(), now);
+        account.setLastLogin(now);
+        userCache.updateLastLogin(account.getId(), now);
+        userCache.putIfUnchanged(account, stamp);
+
+        account.setPassword(null);
+        return account;
+    }
 
-        return user;
+
+    /**
+     * Re-hashes with the configured cost after a successful login. Best effort: a busy
+     * hashing pool or a concurrent password change just leaves the old hash in place.
+     */
+    private void rehashIfNeeded(User account, String password) {
+        if (!passwordHasher.needsRehash(account.getPassword())) return;
+        try {
+            String rehashed = passwordHasher.encode(password);
+            Query unchanged = new Query(Criteria.where("_id").is(account.getId())
+                    .and("password").is(account.getPassword()));
+            mongoTemplate.updateFirst(unchanged, new Update().set("password", rehashed), User.class);
+        } catch (HashingCapacityException e) {
+            // retried on the next login
+        }
     }
 
 
     /****************************************************
-     * CHECK EMAIL EXISTS
+     * CHECK EMAIL / USERNAME EXISTS
+     * A Bloom filter miss is definitive; only possible hits are confirmed in Mongo.
      ****************************************************/
     @Override
     public boolean existsByEmail(String email) {
         if (email == null || email.isBlank()) return false;
         String lowerEmail = email.toLowerCase();
+        if (!availabilityIndex.mightHaveEmail(lowerEmail)) return false;
         Query query = new Query(Criteria.where("email").is(lowerEmail));
         return mongoTemplate.exists(query, User.class);
     }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        if (username == null || username.isBlank()) return false;
+        if (!availabilityIndex.mightHaveUsername(username)) return false;
+        Query query = new Query(Criteria.where("username").is(username));
+        return mongoTemplate.exists(query, User.class);
+    }
 }
\ No newline at end of file
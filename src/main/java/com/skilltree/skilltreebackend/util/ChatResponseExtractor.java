@@ -0,0 +1,274 @@
+package com.skilltree.skilltreebackend.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Utility class for pulling the reply text out of AI provider responses with a streaming tokenizer.
+ * Reads straight from the response source, skips every subtree that cannot contain the text
+ * and stops at the first match, so the rest of the body is never parsed or materialized.
+ *
+ * Recognized shapes (first match in document order wins):
+ * - OpenAI/Groq: choices[0].message.content|text, choices[0].delta.content, choices[0].text
+ * - Gemini: candidates[0].content.parts[].text (concatenated), candidates[0].text
+ * - Legacy: output.contents[0].text|content
+ * - Fallback: top-level text or content
+ *
+ * {@link #extractReply} additionally picks up token usage (usage / usageMetadata), which
+ * providers send after the reply, so it tokenizes the rest of the body but still only
+ * materializes the reply and the counts.
+ */
+public class ChatResponseExtractor {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    /**
+     * Reply text plus the token counts reported by the provider (0 when absent).
+     */
+    public record Reply(String text, long promptTokens, long completionTokens) {
+    }
+
+    /**
+     * Extracts the reply from a full response body.
+     * @param source Open body source; consumed only as far as the reply
+     * @return The reply text, or empty if no known shape matched or the JSON is malformed
+     */
+    public static Optional<String> extract(BufferedSource source) throws IOException {
+        try (JsonParser parser = JSON.createParser(source.inputStream())) {
+            return Optional.ofNullable(readRoot(parser, null));
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Extracts the reply and the provider's token usage from a full response body.
+     * @param source Open body source; consumed to the end of the document
+     * @return The reply, or empty if no known shape matched or the JSON is malformed
+     */
+    public static Optional<Reply> extractReply(BufferedSource source) throws IOException {
+        long[] usage = new long[2];
+        try (JsonParser parser = JSON.createParser(source.inputStream())) {
+            String text = readRoot(parser, usage);
+            return text == null ? Optional.empty() : Optional.of(new Reply(text, usage[0], usage[1]));
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Extracts the reply (or token delta) from an in-memory JSON document such as one SSE chunk.
+     */
+    public static Optional<String> extract(String json) {
+        try (JsonParser parser = JSON.createParser(json)) {
+            return Optional.ofNullable(readRoot(parser, null));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @param usage Null to stop at the reply; otherwise {prompt, completion} tokens are
+     *              collected into it and the whole document is read
+     */
+    private static String readRoot(JsonParser p, long[] usage) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) return null;
+
+        String reply = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (usage != null && (name.equals("usage") || name.equals("usageMetadata"))) {
+                if (value == JsonToken.START_OBJECT) readUsage(p, usage);
+                else p.skipChildren();
+                continue;
+            }
+            if (reply != null) {
+                p.skipChildren();
+                continue;
+            }
+            String found = switch (name) {
+                case "choices" -> readFirstElement(p, value, ChatResponseExtractor::readChoice);
+                case "candidates" -> readFirstElement(p, value, ChatResponseExtractor::readCandidate);
+                case "output" -> readObject(p, value, ChatResponseExtractor::readOutput);
+                case "text", "content" -> readText(p, value);
+                default -> skip(p);
+            };
+            if (found != null) {
+                if (usage == null) return found;
+                reply = found;
+            }
+        }
+        return reply;
+    }
+
+    // usage: {prompt_tokens, completion_tokens} (OpenAI/Groq), usageMetadata: {promptTokenCount, candidatesTokenCount} (Gemini)
+    private static void readUsage(JsonParser p, long[] usage) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == JsonToken.VALUE_NUMBER_INT) {
+                switch (name) {
+                    case "prompt_tokens", "promptTokenCount" -> usage[0] = p.getLongValue();
+                    case "completion_tokens", "candidatesTokenCount" -> usage[1] = p.getLongValue();
+                    default -> { }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    // choices[i]: { message|delta: {content|text}, text }
+    private static String readChoice(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            String found = switch (name) {
+                case "message", "delta" -> readObject(p, value, ChatResponseExtractor::readMessage);
+                case "text" -> readText(p, value);
+                default -> skip(p);
+            };
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static String readMessage(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            String found = name.equals("content") || name.equals("text") ? readText(p, value) : skip(p);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    // candidates[i]: { content: { parts: [{text}] }, text }
+    private static String readCandidate(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            String found = switch (name) {
+                case "content" -> value == JsonToken.START_OBJECT
+                        ? readContent(p)
+                        : readText(p, value);
+                case "text" -> readText(p, value);
+                default -> skip(p);
+            };
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    private static String readContent(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (name.equals("parts") && value == JsonToken.START_ARRAY) {
+                String text = readParts(p);
+                if (text != null) return text;
+            } else {
+                p.skipChildren();
+            }
+        }
+        return null;
+    }
+
+    private static String readParts(JsonParser p) throws IOException {
+        String single = null;
+        StringBuilder joined = null;
+        for (JsonToken t = p.nextToken(); t != null && t != JsonToken.END_ARRAY; t = p.nextToken()) {
+            if (t != JsonToken.START_OBJECT) {
+                p.skipChildren();
+                continue;
+            }
+            String text = readObjectField(p, "text");
+            if (text == null) continue;
+            // Most replies have a single part; only build a StringBuilder when there are more
+            if (single == null && joined == null) {
+                single = text;
+            } else {
+                if (joined == null) joined = new StringBuilder(single);
+                joined.append(text);
+            }
+        }
+        return joined != null ? joined.toString() : single;
+    }
+
+    // output: { contents: [{text|content}] }
+    private static String readOutput(JsonParser p) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            String found = name.equals("contents")
+                    ? readFirstElement(p, value, ChatResponseExtractor::readMessage)
+                    : skip(p);
+            if (found != null) return found;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the first array element with {@code reader} and skips the rest of the array.
+     */
+    private static String readFirstElement(JsonParser p, JsonToken value, ObjectReader reader) throws IOException {
+        if (value != JsonToken.START_ARRAY) return skip(p);
+        JsonToken first = p.nextToken();
+        if (first == JsonToken.END_ARRAY) return null;
+        if (first != JsonToken.START_OBJECT) {
+            p.skipChildren();
+        } else {
+            String found = reader.read(p);
+            if (found != null) return found;
+        }
+        for (JsonToken t = p.nextToken(); t != null && t != JsonToken.END_ARRAY; t = p.nextToken()) {
+            p.skipChildren();
+        }
+        return null;
+    }
+
+    private static String readObject(JsonParser p, JsonToken value, ObjectReader reader) throws IOException {
+        if (value != JsonToken.START_OBJECT) return skip(p);
+        return reader.read(p);
+    }
+
+    /**
+     * Reads one string field of the current object and consumes the object completely.
+     */
+    private static String readObjectField(JsonParser p, String field) throws IOException {
+        String found = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken value = p.nextToken();
+            if (found == null && name.equals(field) && value == JsonToken.VALUE_STRING) {
+                found = p.getText();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return found;
+    }
+
+    private static String readText(JsonParser p, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) return p.getText();
+        return skip(p);
+    }
+
+    private static String skip(JsonParser p) throws IOException {
+        p.skipChildren();
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface ObjectReader {
+        // Called positioned on START_OBJECT; returns the text or null after consuming the object
+        String read(JsonParser p) throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package com.skilltree.skilltreebackend.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.Principal;
+
+/**
+ * Utility class for identifying the caller of a request.
+ */
+public class ClientKeys {
+
+    /**
+     * Authenticated callers are identified by their user id, everyone else by remote address.
+     * @param request Current request
+     * @return "user:&lt;id&gt;" or "ip:&lt;address&gt;"
+     */
+    public static String of(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && principal.getName() != null) return "user:" + principal.getName();
+        return "ip:" + request.getRemoteAddr();
+    }
+}
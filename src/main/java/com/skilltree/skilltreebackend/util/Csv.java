@@ -0,0 +1,71 @@
+package com.skilltree.skilltreebackend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 helpers for one-record-per-line CSV (quoted fields may not span lines).
+ */
+public class Csv {
+
+    /**
+     * Splits one CSV line into fields; quoted fields may contain commas and doubled quotes.
+     * @param line A single CSV record
+     * @return Field values, unquoted
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Appends a value as a CSV field, quoting it only when needed.
+     * @param out Target buffer
+     * @param value Field value; null is written as an empty field
+     */
+    public static void appendField(StringBuilder out, Object value) {
+        if (value == null) return;
+        String s = value.toString();
+        boolean needsQuotes = false;
+        for (int i = 0; i < s.length() && !needsQuotes; i++) {
+            char c = s.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.append(s);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
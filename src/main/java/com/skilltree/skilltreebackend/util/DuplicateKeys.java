@@ -0,0 +1,29 @@
+package com.skilltree.skilltreebackend.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for reading Mongo E11000 duplicate-key errors.
+ */
+public class DuplicateKeys {
+
+    public static final int DUPLICATE_KEY_CODE = 11000;
+
+    // "E11000 duplicate key error collection: db.users index: email dup key: { email: "a@b.c" }"
+    private static final Pattern INDEX = Pattern.compile("index: (\\S+)");
+
+    /**
+     * Names the field behind a duplicate-key error, using the index name.
+     * @param message Server error message
+     * @return "email", "username", or null if the index is not recognised
+     */
+    public static String field(String message) {
+        if (message == null) return null;
+        Matcher matcher = INDEX.matcher(message);
+        String index = matcher.find() ? matcher.group(1) : message;
+        if (index.contains("email")) return "email";
+        if (index.contains("username")) return "username";
+        return null;
+    }
+}
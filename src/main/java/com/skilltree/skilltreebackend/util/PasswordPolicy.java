@@ -0,0 +1,40 @@
+package com.skilltree.skilltreebackend.util;
+
+/**
+ * Utility class for the registration password rules:
+ * at least 8 characters, 3 letters, 2 digits and 1 of {@code @$!%*#?&}.
+ */
+public class PasswordPolicy {
+
+    public static final int MIN_LENGTH = 8;
+    public static final String SPECIAL_CHARACTERS = "@$!%*#?&";
+
+    /**
+     * Checks the rules by counting character classes in a single pass (no regex backtracking).
+     * @param password Raw password
+     * @return null if the password is acceptable, otherwise a message naming what is missing
+     */
+    public static String violations(String password) {
+        if (password == null || password.isEmpty())
+            return "Password is required";
+        if (password.length() < MIN_LENGTH)
+            return "Password must be at least " + MIN_LENGTH + " characters long";
+
+        int letters = 0, digits = 0, specials = 0;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) letters++;
+            else if (c >= '0' && c <= '9') digits++;
+            else if (SPECIAL_CHARACTERS.indexOf(c) >= 0) specials++;
+        }
+        if (letters >= 3 && digits >= 2 && specials >= 1)
+            return null;
+
+        StringBuilder missing = new StringBuilder("Password must contain: ");
+        if (letters < 3) missing.append("3 letters, ");
+        if (digits < 2) missing.append("2 numbers, ");
+        if (specials < 1) missing.append("1 special character (").append(SPECIAL_CHARACTERS).append("), ");
+        missing.setLength(missing.length() - 2);
+        return missing.toString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.skilltree.skilltreebackend.util;
+
+import java.util.Locale;
+
+/**
+ * Utility class for building normalized chat prompt keys.
+ */
+public class PromptKeys {
+
+    /**
+     * Builds a key that treats prompts differing only in case or whitespace as identical.
+     * @param mode Chat mode ("fast" or "deep")
+     * @param node Skill node name
+     * @param message User message
+     * @return Normalized key of the form {@code modeLength:mode|nodeLength:node|message}; the
+     *         length prefixes keep a '|' inside the node or mode from shifting the part boundaries
+     */
+    public static String normalize(String mode, String node, String message) {
+        String m = normalizePart(mode);
+        String n = normalizePart(node);
+        String msg = normalizePart(message);
+        return new StringBuilder(m.length() + n.length() + msg.length() + 16)
+                .append(m.length()).append(':').append(m).append('|')
+                .append(n.length()).append(':').append(n).append('|')
+                .append(msg)
+                .toString();
+    }
+
+    private static String normalizePart(String s) {
+        if (s == null) return "";
+        StringBuilder out = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(c);
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+}
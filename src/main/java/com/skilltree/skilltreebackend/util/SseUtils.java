@@ -0,0 +1,32 @@
+package com.skilltree.skilltreebackend.util;
+
+import okio.BufferedSource;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for reading Server-Sent Events bodies from AI providers.
+ */
+public class SseUtils {
+
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE_MARKER = "[DONE]";
+
+    /**
+     * Reads the event stream line by line and passes every {@code data:} payload to the consumer.
+     * Stops at end of stream or at the OpenAI-style {@code [DONE]} marker.
+     * @param source Open response body source
+     * @param onData Receives each raw data payload (usually a JSON chunk)
+     */
+    public static void forEachData(BufferedSource source, Consumer<String> onData) throws IOException {
+        String line;
+        while ((line = source.readUtf8Line()) != null) {
+            if (!line.startsWith(DATA_PREFIX)) continue;
+            String data = line.substring(DATA_PREFIX.length()).trim();
+            if (data.isEmpty()) continue;
+            if (DONE_MARKER.equals(data)) return;
+            onData.accept(data);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.skilltree.skilltreebackend.util;
+
+/**
+ * Utility class for estimating LLM token counts locally, without a provider tokenizer.
+ * Uses the larger of ~4 characters per token and ~0.75 words per token, which tracks
+ * BPE tokenizers closely enough for budgeting English prompts.
+ */
+public class TokenEstimator {
+
+    /**
+     * @param text Any text, may be null
+     * @return Estimated token count (0 for null or empty)
+     */
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
+        }
+        return Math.max((text.length() + 3) / 4, (words * 4 + 2) / 3);
+    }
+
+    /**
+     * Cuts text to roughly {@code maxTokens}, preferring a word boundary.
+     */
+    public static String truncate(String text, int maxTokens) {
+        if (text == null || estimate(text) <= maxTokens) return text;
+        int maxChars = Math.max(0, maxTokens * 4);
+        if (maxChars >= text.length()) return text;
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > maxChars / 2 ? cut : maxChars) + "…";
+    }
+}
@@ -69,9 +69,9 @@ usernameInput.addEventListener("input", async () => {
     usernameFeedback.className = "text-sm text-red-500";
     isUsernameAvailable = false;
   } else {
-    const response = await fetch(`http://localhost:8080/api/users/username/${value}`);
+    const response = await fetch(`http://localhost:8080/api/users/availability?username=${encodeURIComponent(value)}`);
     const data = await response.json();
-    const available = data.data === null; // If user not found, username is available
+    const available = data.data && data.data.usernameAvailable;
     usernameFeedback.textContent = available ? "✅ Username available!" : "❌ Username taken!";
     usernameFeedback.className = `text-sm ${available ? "text-green-500" : "text-red-500"}`;
     isUsernameAvailable = available;
@@ -91,11 +91,11 @@ emailInput.addEventListener("input", async () => {
     emailFeedback.textContent = "";
     isEmailAvailable = true;
   } else {
-    const response = await fetch(`http://localhost:8080/api/users/check-email?email=${encodeURIComponent(value)}`);
+    const response = await fetch(`http://localhost:8080/api/users/availability?email=${encodeURIComponent(value)}`);
     const data = await response.json();
-    isEmailAvailable = !data.data; // data is true if email exists
-    emailFeedback.textContent = data.data ? "❌ Email already taken!" : "✅ Email available!";
-    emailFeedback.className = `text-sm ${data.data ? "text-red-500" : "text-green-500"}`;
+    isEmailAvailable = !!(data.data && data.data.emailAvailable);
+    emailFeedback.textContent = isEmailAvailable ? "✅ Email available!" : "❌ Email already taken!";
+    emailFeedback.className = `text-sm ${isEmailAvailable ? "text-green-500" : "text-red-500"}`;
   }
   updateSignupButton();
 });
@@ -213,6 +213,8 @@ async function handleSignIn(event) {
     });
     const data = await response.json();
     if (data.success) {
+      localStorage.setItem("accessToken", data.data.tokens.accessToken);
+      localStorage.setItem("refreshToken", data.data.tokens.refreshToken);
       toggleModal("signinModal");
       showToast(`Welcome back, ${username.split('@')[0]}!`, true);
       feedback.classList.add("hidden");
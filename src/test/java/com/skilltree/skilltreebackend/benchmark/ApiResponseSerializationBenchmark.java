@@ -0,0 +1,69 @@
+package com.skilltree.skilltreebackend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.skilltree.skilltreebackend.model.User;
+import com.skilltree.skilltreebackend.response.ApiResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the user endpoints' response envelopes,
+ * with the mapper configured the way Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"50"})
+    public int listSize;
+
+    private ObjectMapper mapper;
+    private ApiResponse<User> single;
+    private ApiResponse<List<User>> list;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        single = new ApiResponse<>(true, "User retrieved successfully", user(0));
+        List<User> users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) users.add(user(i));
+        list = new ApiResponse<>(true, "Users retrieved successfully", users);
+    }
+
+    @Benchmark
+    public byte[] singleUser() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(single);
+    }
+
+    @Benchmark
+    public byte[] userList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(list);
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setId("665f1c2e9b1e8a3d4c00" + String.format("%04d", i));
+        user.setUsername("learner" + i);
+        user.setEmail("learner" + i + "@example.com");
+        user.setFullName("Learner Number " + i);
+        user.setDateOfBirth(LocalDate.of(1995, 1 + i % 12, 1 + i % 28));
+        user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        user.setLastLogin(LocalDateTime.of(2024, 6, 1, 8, 30));
+        return user;   // password stays null, as the controllers send it
+    }
+}
@@ -0,0 +1,64 @@
+package com.skilltree.skilltreebackend.benchmark;
+
+import com.skilltree.skilltreebackend.config.AIConfig;
+import com.skilltree.skilltreebackend.prompt.ChatRequestBodies;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provider request body construction, including writing the body out as OkHttp would.
+ * Groq resolves a per-node-type template; Gemini has none for the type and uses its default.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatRequestBodiesBenchmark {
+
+    private ChatRequestBodies bodies;
+    private String nodeType;
+    private String node;
+    private String message;
+
+    @Setup
+    public void setUp() {
+        AIConfig config = new AIConfig();
+        ReflectionTestUtils.setField(config, "groqModel", "llama3-70b");
+        ReflectionTestUtils.setField(config, "groqMaxTokens", 800);
+        ReflectionTestUtils.setField(config, "groqTemperature", 0.2);
+        ReflectionTestUtils.setField(config, "groqSystemPrompt", "You are SkillTree AI. Be clear, concise and educational.");
+        ReflectionTestUtils.setField(config, "groqUserTemplate", "Node: {node}\nMessage: {message}");
+        ReflectionTestUtils.setField(config, "geminiMaxTokens", 1200);
+        ReflectionTestUtils.setField(config, "geminiTemperature", 0.2);
+        ReflectionTestUtils.setField(config, "geminiUserTemplate", "SkillTree Deep Mode. Node: {node}\nMessage: {message}");
+        ReflectionTestUtils.setField(config, "groqNodeTypeTemplates",
+                Map.of("algorithms", "Algorithms topic: {node}\nInclude time and space complexity.\nMessage: {message}"));
+        bodies = new ChatRequestBodies(config);
+
+        nodeType = "algorithms";
+        node = "Dynamic Programming";
+        message = "Explain \"memoization\" vs tabulation.\nGive a Java example for the knapsack problem, "
+                + "and say when each approach wins on memory.";
+    }
+
+    @Benchmark
+    public long groq() throws IOException {
+        Buffer sink = new Buffer();
+        bodies.groq(nodeType, node, message, false).writeTo(sink);
+        return sink.size();
+    }
+
+    @Benchmark
+    public long gemini() throws IOException {
+        Buffer sink = new Buffer();
+        bodies.gemini(nodeType, node, message).writeTo(sink);
+        return sink.size();
+    }
+}
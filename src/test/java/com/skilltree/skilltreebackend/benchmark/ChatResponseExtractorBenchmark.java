@@ -0,0 +1,99 @@
+package com.skilltree.skilltreebackend.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.skilltree.skilltreebackend.util.ChatResponseExtractor;
+import okio.Buffer;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reply extraction on realistic provider payloads, against the body.string() + Gson tree parse
+ * it replaced, for both providers and both entry points (text only, and text plus usage).
+ * Run under -Pbenchmark, whose GC profiler reports the allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatResponseExtractorBenchmark {
+
+    private ByteString groq;
+    private ByteString gemini;
+
+    @Setup
+    public void setUp() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 40; i++) content.append("Recursion solves a problem by solving smaller instances of it. ");
+
+        // Groq with logprobs enabled: the answer is small next to the metadata around it
+        StringBuilder logprobs = new StringBuilder("[");
+        for (int i = 0; i < 400; i++) {
+            if (i > 0) logprobs.append(',');
+            logprobs.append("{\"token\":\"t").append(i).append("\",\"logprob\":-0.").append(i).append('}');
+        }
+        String groqText = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"created\":1718000000,\"model\":\"llama3-70b\","
+                + "\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"},"
+                + "\"logprobs\":{\"content\":" + logprobs + "]},\"finish_reason\":\"stop\"}],"
+                + "\"usage\":{\"prompt_tokens\":31,\"completion_tokens\":420,\"total_tokens\":451}}";
+        groq = ByteString.encodeUtf8(groqText);
+
+        gemini = ByteString.encodeUtf8("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + content + "\"},"
+                + "{\"text\":\"" + content + "\"}],\"role\":\"model\"},\"finishReason\":\"STOP\","
+                + "\"safetyRatings\":[{\"category\":\"HARM_CATEGORY_HARASSMENT\",\"probability\":\"NEGLIGIBLE\"},"
+                + "{\"category\":\"HARM_CATEGORY_HATE_SPEECH\",\"probability\":\"NEGLIGIBLE\"}]}],"
+                + "\"usageMetadata\":{\"promptTokenCount\":12,\"candidatesTokenCount\":840,\"totalTokenCount\":852}}");
+    }
+
+    // extract(): stops at the reply; what SSE chunks and early-exit callers pay
+    @Benchmark
+    public String groqStreaming() throws IOException {
+        return ChatResponseExtractor.extract(new Buffer().write(groq)).orElseThrow();
+    }
+
+    @Benchmark
+    public String geminiStreaming() throws IOException {
+        return ChatResponseExtractor.extract(new Buffer().write(gemini)).orElseThrow();
+    }
+
+    // extractReply(): what FastChatServiceImpl/DeepChatServiceImpl call; also reads the trailing usage
+    @Benchmark
+    public ChatResponseExtractor.Reply groqStreamingWithUsage() throws IOException {
+        return ChatResponseExtractor.extractReply(new Buffer().write(groq)).orElseThrow();
+    }
+
+    @Benchmark
+    public ChatResponseExtractor.Reply geminiStreamingWithUsage() throws IOException {
+        return ChatResponseExtractor.extractReply(new Buffer().write(gemini)).orElseThrow();
+    }
+
+    // Baselines: the old body.string() + Gson tree, reading the same fields as extractReply()
+    @Benchmark
+    public ChatResponseExtractor.Reply groqGsonTree() {
+        JsonObject root = JsonParser.parseString(new Buffer().write(groq).readUtf8()).getAsJsonObject();
+        String text = root.getAsJsonArray("choices").get(0).getAsJsonObject()
+                .getAsJsonObject("message").get("content").getAsString();
+        JsonObject usage = root.getAsJsonObject("usage");
+        return new ChatResponseExtractor.Reply(text,
+                usage.get("prompt_tokens").getAsLong(), usage.get("completion_tokens").getAsLong());
+    }
+
+    @Benchmark
+    public ChatResponseExtractor.Reply geminiGsonTree() {
+        JsonObject root = JsonParser.parseString(new Buffer().write(gemini).readUtf8()).getAsJsonObject();
+        StringBuilder text = new StringBuilder();
+        for (JsonElement part : root.getAsJsonArray("candidates").get(0).getAsJsonObject()
+                .getAsJsonObject("content").getAsJsonArray("parts")) {
+            text.append(part.getAsJsonObject().get("text").getAsString());
+        }
+        JsonObject usage = root.getAsJsonObject("usageMetadata");
+        return new ChatResponseExtractor.Reply(text.toString(),
+                usage.get("promptTokenCount").getAsLong(), usage.get("candidatesTokenCount").getAsLong());
+    }
+}
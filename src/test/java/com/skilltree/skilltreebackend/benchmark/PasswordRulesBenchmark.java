@@ -0,0 +1,41 @@
+package com.skilltree.skilltreebackend.benchmark;
+
+import com.skilltree.skilltreebackend.util.PasswordPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Password complexity checks: the regexes UserController.createUser used to run,
+ * against the single-pass PasswordPolicy that replaced them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordRulesBenchmark {
+
+    private static final Pattern PASSWORD_LETTERS = Pattern.compile("[A-Za-z].*[A-Za-z].*[A-Za-z]");
+    private static final Pattern PASSWORD_NUMBERS = Pattern.compile(".*\\d.*\\d.*");
+    private static final Pattern PASSWORD_SPECIAL = Pattern.compile(".*[@$!%*#?&].*");
+
+    // valid, missing a special character, and a long input that makes the backtracking patterns work hard
+    @Param({"abc12@xyz", "password12", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa1"})
+    public String password;
+
+    @Benchmark
+    public boolean regexChecks() {
+        boolean letters = PASSWORD_LETTERS.matcher(password).find();
+        boolean numbers = PASSWORD_NUMBERS.matcher(password).find();
+        boolean special = PASSWORD_SPECIAL.matcher(password).find();
+        return letters & numbers & special;
+    }
+
+    @Benchmark
+    public boolean singlePass() {
+        return PasswordPolicy.violations(password) == null;
+    }
+}
@@ -0,0 +1,186 @@
+package com.skilltree.skilltreebackend.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of /api/chat and /api/users against stub LLM providers and an
+ * embedded mongod, so it needs neither provider quota nor Atlas.
+ * Excluded from the default build; run it with {@code mvn -Ploadtest test}.
+ *
+ * Every scenario writes target/loadtest/&lt;scenario&gt;.json. Thresholds are only enforced
+ * when loadtest.enforce=true (the loadtest profile sets it); see the profile in pom.xml
+ * for the tunable properties.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+
+    private static final Pattern USER_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static StubLlmServer groq;
+    private static StubLlmServer gemini;
+
+    private final LoadDriver driver = new LoadDriver();
+    private final HttpClient setupClient = HttpClient.newHttpClient();
+    private final List<LoadReport> reports = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startStubs() throws IOException {
+        ensureStarted();
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        if (groq != null) groq.close();
+        if (gemini != null) gemini.close();
+        if (mongod != null) mongod.close();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) throws IOException {
+        ensureStarted();
+        ServerAddress mongo = mongod.current().getServerAddress();
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + mongo.getHost() + ":" + mongo.getPort() + "/skilltree-loadtest");
+        registry.add("spring.data.mongodb.database", () -> "skilltree-loadtest");
+        registry.add("ai.groq.base-url", groq::baseUrl);
+        registry.add("ai.gemini.base-url", gemini::baseUrl);
+        registry.add("GROQ_API_KEY", () -> "stub-groq-key");
+        registry.add("GEMINI_API_KEY", () -> "stub-gemini-key");
+        registry.add("ai.http.warmup-enabled", () -> "false");
+        registry.add("ai.groq.max-concurrent", () -> "512");
+        registry.add("ai.gemini.max-concurrent", () -> "512");
+        // Measure the provider pipeline, not the quota or the reply cache
+        registry.add("chat.ratelimit.enabled", () -> "false");
+        registry.add("chat.cache.enabled", () -> "false");
+        registry.add("chat.cache.disk-enabled", () -> "false");
+        registry.add("logging.level.org.springframework.data.mongodb.core.MongoTemplate", () -> "INFO");
+    }
+
+    private static synchronized void ensureStarted() throws IOException {
+        if (mongod == null) mongod = Mongod.instance().start(Version.Main.V7_0);
+        if (groq == null) groq = new StubLlmServer(StubLlmServer.Behavior.defaults());
+        if (gemini == null) gemini = new StubLlmServer(StubLlmServer.Behavior.defaults());
+    }
+
+    @Test
+    void chatAndUserEndpointsMeetLatencyBudgets() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20));
+
+        // Unique messages so every request reaches the (stub) provider
+        measure("chat-fast", concurrency, warmup, duration, i -> post("/api/chat",
+                "{\"node\":\"Recursion\",\"message\":\"question " + i + "\",\"mode\":\"fast\"}"));
+        measure("chat-deep", concurrency, warmup, duration, i -> post("/api/chat",
+                "{\"node\":\"Recursion\",\"message\":\"question " + i + "\",\"mode\":\"deep\"}"));
+        measure("chat-stream", concurrency, warmup, duration, i -> post("/api/chat/stream",
+                "{\"node\":\"Recursion\",\"message\":\"stream " + i + "\",\"mode\":\"fast\"}"));
+
+        List<String> userIds = createUsers(Integer.getInteger("loadtest.users", 50));
+        measure("users-get", concurrency, warmup, duration, i -> get("/api/users/" + userIds.get((int) (i % userIds.size()))));
+        measure("users-login", concurrency, warmup, duration, i -> post("/api/users/login",
+                "{\"email\":\"load" + (i % userIds.size()) + "@example.com\",\"password\":\"abc12@xyz\"}"));
+
+        writeReports();
+        if (Boolean.getBoolean("loadtest.enforce")) enforceThresholds();
+    }
+
+    private void measure(String scenario, int concurrency, Duration warmup, Duration duration,
+                         LongFunction<HttpRequest> requests) throws Exception {
+        LoadReport report = driver.run(scenario, concurrency, warmup, duration, requests);
+        reports.add(report);
+        System.out.println("[loadtest] " + report);
+    }
+
+    private List<String> createUsers(int count) throws Exception {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String body = String.format(Locale.ROOT,
+                    "{\"username\":\"load%d\",\"email\":\"load%d@example.com\",\"password\":\"abc12@xyz\","
+                            + "\"passwordConfirm\":\"abc12@xyz\",\"fullName\":\"Load User %d\"}", i, i, i);
+            HttpResponse<String> response = setupClient.send(post("/api/users", body), HttpResponse.BodyHandlers.ofString());
+            Matcher id = USER_ID.matcher(response.body());
+            assertThat(id.find()).as("user creation failed: %s", response.body()).isTrue();
+            ids.add(id.group(1));
+        }
+        return ids;
+    }
+
+    private void writeReports() throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        StringBuilder all = new StringBuilder("[");
+        for (LoadReport report : reports) {
+            Files.writeString(REPORT_DIR.resolve(report.scenario() + ".json"), report.toJson());
+            if (all.length() > 1) all.append(',');
+            all.append(report.toJson());
+        }
+        Files.writeString(REPORT_DIR.resolve("summary.json"), all.append(']'));
+    }
+
+    private void enforceThresholds() {
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        for (LoadReport report : reports) {
+            String prefix = "loadtest." + report.scenario();
+            assertThat(report.errorRate()).as("%s error rate", report.scenario()).isLessThanOrEqualTo(maxErrorRate);
+
+            String maxP99 = System.getProperty(prefix + ".max-p99-ms");
+            if (maxP99 != null) {
+                assertThat(report.p99Ms()).as("%s p99 (ms)", report.scenario()).isLessThanOrEqualTo(Double.parseDouble(maxP99));
+            }
+            String minThroughput = System.getProperty(prefix + ".min-throughput");
+            if (minThroughput != null) {
+                assertThat(report.throughput()).as("%s throughput (req/s)", report.scenario())
+                        .isGreaterThanOrEqualTo(Double.parseDouble(minThroughput));
+            }
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.skilltree.skilltreebackend.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Closed-loop load generator: a fixed number of virtual-thread workers each send
+ * requests back to back for the configured duration, after an unmeasured warm-up.
+ * A request counts as an error on any non-2xx status, exception, or SSE "error" event
+ * (streams report provider failures in-band after the 200 has been sent).
+ */
+final class LoadDriver {
+
+    private static final String SSE_ERROR_EVENT = "event:error";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * @param requests Builds the i-th request; called concurrently from every worker
+     */
+    LoadReport run(String scenario, int concurrency, Duration warmup, Duration duration,
+                   LongFunction<HttpRequest> requests) throws Exception {
+        AtomicLong sequence = new AtomicLong();
+        drive(concurrency, warmup, requests, sequence, null);
+
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        List<long[]> perWorker = drive(concurrency, duration, requests, sequence, errors);
+        long elapsed = System.nanoTime() - start;
+
+        int total = perWorker.stream().mapToInt(a -> a.length).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] worker : perWorker) {
+            System.arraycopy(worker, 0, latencies, offset, worker.length);
+            offset += worker.length;
+        }
+        return LoadReport.of(scenario, concurrency, latencies, errors.get(), elapsed);
+    }
+
+    private List<long[]> drive(int concurrency, Duration duration, LongFunction<HttpRequest> requests,
+                               AtomicLong sequence, AtomicLong errors) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                futures.add(workers.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.apply(sequence.getAndIncrement());
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            ok = response.statusCode() / 100 == 2 && !response.body().contains(SSE_ERROR_EVENT);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long latency = System.nanoTime() - t0;
+                        if (!ok) {
+                            if (errors != null) errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                        samples[count++] = latency;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+            List<long[]> results = new ArrayList<>(concurrency);
+            for (Future<long[]> future : futures) results.add(future.get());
+            return results;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.skilltree.skilltreebackend.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latency and throughput summary of one load scenario.
+ * Percentiles are nearest-rank over every successful request, in milliseconds.
+ */
+record LoadReport(String scenario, int concurrency, long requests, long errors, double seconds,
+                  double throughput, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+    static LoadReport of(String scenario, int concurrency, long[] latenciesNanos, long errors, long elapsedNanos) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        double seconds = elapsedNanos / 1e9;
+        long total = sorted.length + errors;
+        return new LoadReport(scenario, concurrency, total, errors, seconds,
+                seconds > 0 ? sorted.length / seconds : 0,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"scenario\":\"%s\",\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"seconds\":%.3f,"
+                        + "\"throughput\":%.2f,\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                scenario, concurrency, requests, errors, seconds, throughput, p50Ms, p95Ms, p99Ms, maxMs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-14s c=%-3d n=%-6d err=%-4d %8.1f req/s  p50=%7.1fms  p95=%7.1fms  p99=%7.1fms  max=%7.1fms",
+                scenario, concurrency, requests, errors, throughput, p50Ms, p95Ms, p99Ms, maxMs);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(q * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
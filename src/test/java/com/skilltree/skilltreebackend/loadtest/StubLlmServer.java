@@ -0,0 +1,141 @@
+package com.skilltree.skilltreebackend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Local stand-in for the Groq chat-completions and Gemini generateContent APIs.
+ * Serves canned replies in each provider's JSON and SSE shapes with configurable
+ * latency, jitter, error rate and streaming cadence, so load tests spend no quota.
+ */
+final class StubLlmServer implements AutoCloseable {
+
+    /**
+     * @param latencyMs     Delay before the response headers (time to first byte)
+     * @param jitterMs      Uniform random extra delay added to latencyMs
+     * @param errorRate     Fraction of requests answered with errorStatus
+     * @param errorStatus   HTTP status used for injected errors (429 and 5xx are retried by the app)
+     * @param chunks        Number of SSE events per streamed reply
+     * @param chunkDelayMs  Delay between SSE events
+     */
+    record Behavior(long latencyMs, long jitterMs, double errorRate, int errorStatus, int chunks, long chunkDelayMs) {
+        static Behavior defaults() {
+            return new Behavior(
+                    Long.getLong("loadtest.stub.latency-ms", 150),
+                    Long.getLong("loadtest.stub.jitter-ms", 50),
+                    Double.parseDouble(System.getProperty("loadtest.stub.error-rate", "0.0")),
+                    Integer.getInteger("loadtest.stub.error-status", 503),
+                    Integer.getInteger("loadtest.stub.chunks", 8),
+                    Long.getLong("loadtest.stub.chunk-delay-ms", 20));
+        }
+    }
+
+    private static final String REPLY = "A stubbed answer about this skill node. ";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile Behavior behavior;
+
+    StubLlmServer(Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    void setBehavior(Behavior behavior) {
+        this.behavior = behavior;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);   // warm-up HEAD requests
+                return;
+            }
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Behavior b = behavior;
+
+            sleep(b.latencyMs() + (b.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(b.jitterMs() + 1) : 0));
+            if (b.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < b.errorRate()) {
+                sendJson(exchange, b.errorStatus(), "{\"error\":{\"message\":\"injected failure\"}}");
+                return;
+            }
+
+            if (path.endsWith("/chat/completions")) {
+                if (body.contains("\"stream\":true")) {
+                    stream(exchange, b, chunk -> "{\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + chunk + "\"}}]}", true);
+                } else {
+                    sendJson(exchange, 200, "{\"id\":\"stub\",\"object\":\"chat.completion\",\"choices\":[{\"index\":0,"
+                            + "\"message\":{\"role\":\"assistant\",\"content\":\"" + REPLY + "\"},\"finish_reason\":\"stop\"}]}");
+                }
+            } else if (path.endsWith(":streamGenerateContent") && query != null && query.contains("alt=sse")) {
+                stream(exchange, b, chunk -> "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + chunk + "\"}],\"role\":\"model\"}}]}", false);
+            } else if (path.endsWith(":generateContent")) {
+                sendJson(exchange, 200, "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + REPLY + "\"}],"
+                        + "\"role\":\"model\"},\"finishReason\":\"STOP\"}]}");
+            } else {
+                sendJson(exchange, 404, "{\"error\":{\"message\":\"unknown path " + path + "\"}}");
+            }
+        }
+    }
+
+    private static void stream(HttpExchange exchange, Behavior b, Function<String, String> event,
+                               boolean doneMarker) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        for (int i = 0; i < b.chunks(); i++) {
+            if (i > 0) sleep(b.chunkDelayMs());
+            out.write(("data: " + event.apply("part " + i + " ") + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        if (doneMarker) out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.skilltree.skilltreebackend.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Side-by-side throughput of the user read endpoints with users.service.mode=blocking and
+ * users.service.mode=reactive, against the same embedded mongod with a deliberately small
+ * connection pool (loadtest.mongo-pool-size) and the profile cache disabled, so every request
+ * really waits on the database. Run with {@code mvn -Ploadtest test}.
+ *
+ * Writes target/loadtest/users-&lt;scenario&gt;-&lt;mode&gt;.json and a combined
+ * target/loadtest/user-service-modes.json.
+ */
+@Tag("loadtest")
+class UserServiceModeLoadTest {
+
+    private static final Pattern USER_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Path REPORT_DIR = Path.of("target", "loadtest");
+    private static final Map<String, LoadReport> RESULTS = new TreeMap<>();
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+
+    @AfterAll
+    static void compare() throws IOException {
+        if (mongod != null) mongod.close();
+
+        Files.createDirectories(REPORT_DIR);
+        StringBuilder json = new StringBuilder("[");
+        for (LoadReport report : RESULTS.values()) {
+            if (json.length() > 1) json.append(',');
+            json.append(report.toJson());
+        }
+        Files.writeString(REPORT_DIR.resolve("user-service-modes.json"), json.append(']'));
+
+        for (String scenario : List.of("users-get", "users-page")) {
+            LoadReport blocking = RESULTS.get(scenario + "-blocking");
+            LoadReport reactive = RESULTS.get(scenario + "-reactive");
+            if (blocking == null || reactive == null) continue;
+            System.out.printf(Locale.ROOT, "[loadtest] %-10s blocking %8.1f req/s p99=%6.1fms | reactive %8.1f req/s p99=%6.1fms | x%.2f%n",
+                    scenario, blocking.throughput(), blocking.p99Ms(), reactive.throughput(), reactive.p99Ms(),
+                    blocking.throughput() > 0 ? reactive.throughput() / blocking.throughput() : 0);
+        }
+    }
+
+    private static synchronized ServerAddress mongo() throws IOException {
+        if (mongod == null) mongod = Mongod.instance().start(Version.Main.V7_0);
+        return mongod.current().getServerAddress();
+    }
+
+    static void properties(DynamicPropertyRegistry registry, String mode) throws IOException {
+        ServerAddress mongo = mongo();
+        int poolSize = Integer.getInteger("loadtest.mongo-pool-size", 8);
+        String database = "skilltree-mode-" + mode;
+        registry.add("spring.data.mongodb.uri", () -> "mongodb://" + mongo.getHost() + ":" + mongo.getPort()
+                + "/" + database + "?maxPoolSize=" + poolSize);
+        registry.add("spring.data.mongodb.database", () -> database);
+        registry.add("users.service.mode", () -> mode);
+        registry.add("users.cache.max-size", () -> "0");
+        registry.add("GROQ_API_KEY", () -> "unused");
+        registry.add("GEMINI_API_KEY", () -> "unused");
+        registry.add("ai.http.warmup-enabled", () -> "false");
+        registry.add("chat.primer.enabled", () -> "false");
+        registry.add("chat.cache.disk-enabled", () -> "false");
+        registry.add("logging.level.org.springframework.data.mongodb.core.MongoTemplate", () -> "INFO");
+    }
+
+    abstract static class ModeScenarios {
+
+        private final LoadDriver driver = new LoadDriver();
+        private final HttpClient setupClient = HttpClient.newHttpClient();
+
+        @LocalServerPort
+        private int port;
+
+        abstract String mode();
+
+        @Test
+        void readEndpoints() throws Exception {
+            int concurrency = Integer.getInteger("loadtest.concurrency", 128);
+            Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+            Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20));
+
+            List<String> ids = createUsers(Integer.getInteger("loadtest.users", 200));
+            measure("users-get", concurrency, warmup, duration, ids);
+            measure("users-page", concurrency, warmup, duration, ids);
+        }
+
+        private void measure(String scenario, int concurrency, Duration warmup, Duration duration, List<String> ids) throws Exception {
+            LoadReport report = driver.run(scenario + "-" + mode(), concurrency, warmup, duration, i -> get(
+                    scenario.equals("users-get")
+                            ? "/api/users/" + ids.get((int) (i % ids.size()))
+                            : "/api/users?limit=20&after=" + ids.get((int) (i % (ids.size() - 20)))));
+            Files.createDirectories(REPORT_DIR);
+            Files.writeString(REPORT_DIR.resolve(report.scenario() + ".json"), report.toJson());
+            synchronized (RESULTS) {
+                RESULTS.put(report.scenario(), report);
+            }
+            System.out.println("[loadtest] " + report);
+            assertThat(report.errorRate()).as("%s error rate", report.scenario())
+                    .isLessThanOrEqualTo(Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")));
+        }
+
+        private List<String> createUsers(int count) throws Exception {
+            List<String> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String body = String.format(Locale.ROOT,
+                        "{\"username\":\"mode%d\",\"email\":\"mode%d@example.com\",\"password\":\"abc12@xyz\","
+                                + "\"passwordConfirm\":\"abc12@xyz\",\"fullName\":\"Mode User %d\"}", i, i, i);
+                HttpResponse<String> response = setupClient.send(HttpRequest.newBuilder(uri("/api/users"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                Matcher id = USER_ID.matcher(response.body());
+                assertThat(id.find()).as("user creation failed: %s", response.body()).isTrue();
+                ids.add(id.group(1));
+            }
+            return ids;
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    class Blocking extends ModeScenarios {
+
+        @DynamicPropertySource
+        static void blocking(DynamicPropertyRegistry registry) throws IOException {
+            properties(registry, "blocking");
+        }
+
+        @Override
+        String mode() {
+            return "blocking";
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    class Reactive extends ModeScenarios {
+
+        @DynamicPropertySource
+        static void reactive(DynamicPropertyRegistry registry) throws IOException {
+            properties(registry, "reactive");
+        }
+
+        @Override
+        String mode() {
+            return "reactive";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.skilltree.skilltreebackend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RadixTreeTests {
+
+    @Test
+    void returnsPrefixMatchesShortestKeysFirst() {
+        RadixTree tree = new RadixTree();
+        tree.put("alexander", "3");
+        tree.put("alex", "1");
+        tree.put("alexa", "2");
+        tree.put("bob", "4");
+
+        assertThat(matches(tree, "ale", 10)).containsExactly("1", "2", "3");
+        assertThat(matches(tree, "alexa", 10)).containsExactly("2", "3");
+        assertThat(matches(tree, "alexy", 10)).isEmpty();
+        assertThat(matches(tree, "a", 2)).containsExactly("1", "2");
+    }
+
+    @Test
+    void ordersSiblingBranchesByKeyLength() {
+        RadixTree tree = new RadixTree();
+        tree.put("alexander", "1");
+        tree.put("alexb", "2");
+        tree.put("alexandra", "3");
+        tree.put("alexz", "4");
+
+        assertThat(matches(tree, "alex", 10)).containsExactly("2", "4", "1", "3");
+        assertThat(matches(tree, "al", 1)).containsExactly("2");
+        assertThat(matches(tree, "alexan", 10)).containsExactly("1", "3");
+    }
+
+    @Test
+    void removalKeepsTheTreeCompressed() {
+        RadixTree tree = new RadixTree();
+        tree.put("carla", "1");
+        tree.put("carlos", "2");
+        tree.put("carl", "3");
+        int nodes = tree.nodeCount();
+
+        tree.remove("carl", "3");
+        tree.remove("carlos", "2");
+
+        assertThat(matches(tree, "car", 10)).containsExactly("1");
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.nodeCount()).isLessThan(nodes);
+        assertThat(tree.nodeCount()).isEqualTo(2);   // root + "carla"
+    }
+
+    private static List<String> matches(RadixTree tree, String prefix, int limit) {
+        List<String> out = new ArrayList<>();
+        tree.visitPrefix(prefix, value -> {
+            out.add(value);
+            return out.size() < limit;
+        });
+        return out;
+    }
+}
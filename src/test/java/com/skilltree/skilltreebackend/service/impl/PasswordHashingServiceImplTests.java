@@ -0,0 +1,100 @@
+package com.skilltree.skilltreebackend.service.impl;
+
+import com.skilltree.skilltreebackend.exception.HashingCapacityException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceImplTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingServiceImpl hasher =
+            new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), registry, 4, 1, 4, 5000);
+
+    @Test
+    void encodesAndMatchesOnThePool() {
+        String hash = hasher.encode("Secret#123");
+
+        assertThat(hasher.matches("Secret#123", hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+        assertThat(registry.get("password.hash.duration").tag("op", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rehashesOnlyWhenTheStoredCostDiffers() {
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("x"))).isFalse();
+        assertThat(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("x"))).isTrue();
+        assertThat(hasher.needsRehash("not-a-bcrypt-hash")).isFalse();
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() throws Exception {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingServiceImpl saturated =
+                new PasswordHashingServiceImpl(blockingEncoder(release), meters, 4, 1, 1, 5000);
+        try {
+            // One task on the only worker, then one in the only queue slot
+            CompletableFuture<?> running = CompletableFuture.runAsync(() -> saturated.encode("a"));
+            awaitGauge(meters, "password.hash.active");
+            CompletableFuture<?> queued = CompletableFuture.runAsync(() -> saturated.encode("b"));
+            awaitGauge(meters, "password.hash.queued");
+
+            assertThatThrownBy(() -> saturated.encode("c"))
+                    .isInstanceOf(HashingCapacityException.class)
+                    .satisfies(e -> assertThat(((HashingCapacityException) e).getRetryAfterSeconds()).isPositive());
+            assertThat(meters.get("password.hash.rejected").tag("reason", "queue_full").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsWhenTheWaitTimesOut() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingServiceImpl slow =
+                new PasswordHashingServiceImpl(blockingEncoder(release), meters, 4, 1, 1, 100);
+        try {
+            assertThatThrownBy(() -> slow.encode("a")).isInstanceOf(HashingCapacityException.class);
+            assertThat(meters.get("password.hash.rejected").tag("reason", "timeout").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            slow.shutdown();
+        }
+    }
+
+    // Holds the worker until released, so saturation does not depend on how fast BCrypt runs
+    private static BCryptPasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+    }
+
+    private static void awaitGauge(SimpleMeterRegistry meters, String gauge) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meters.get(gauge).gauge().value() < 1) {
+            assertThat(System.nanoTime()).as("%s never reached 1", gauge).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.skilltree.skilltreebackend.util;
+
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatResponseExtractorTests {
+
+    private static final String GROQ = """
+            {"id":"chatcmpl-1","object":"chat.completion","model":"llama3-70b",
+             "choices":[{"index":0,"message":{"role":"assistant","content":"Recursion is a function calling itself."},
+                         "logprobs":null,"finish_reason":"stop"}],
+             "usage":{"prompt_tokens":31,"completion_tokens":9,"total_tokens":40}}
+            """;
+
+    private static final String GEMINI = """
+            {"candidates":[{"content":{"parts":[{"text":"Binary search "},{"text":"halves the range."}],"role":"model"},
+                            "finishReason":"STOP","safetyRatings":[{"category":"HARM_CATEGORY_HARASSMENT","probability":"NEGLIGIBLE"}]}],
+             "usageMetadata":{"promptTokenCount":12,"candidatesTokenCount":7}}
+            """;
+
+    @Test
+    void extractsOpenAiStyleContent() throws IOException {
+        assertThat(ChatResponseExtractor.extract(new Buffer().writeUtf8(GROQ)))
+                .contains("Recursion is a function calling itself.");
+    }
+
+    @Test
+    void concatenatesGeminiParts() throws IOException {
+        assertThat(ChatResponseExtractor.extract(new Buffer().writeUtf8(GEMINI)))
+                .contains("Binary search halves the range.");
+    }
+
+    @Test
+    void readsTokenUsageAfterTheReply() throws IOException {
+        assertThat(ChatResponseExtractor.extractReply(new Buffer().writeUtf8(GROQ)))
+                .contains(new ChatResponseExtractor.Reply("Recursion is a function calling itself.", 31, 9));
+        assertThat(ChatResponseExtractor.extractReply(new Buffer().writeUtf8(GEMINI)))
+                .contains(new ChatResponseExtractor.Reply("Binary search halves the range.", 12, 7));
+    }
+
+    @Test
+    void extractsStreamDeltasAndFallbackShapes() {
+        assertThat(ChatResponseExtractor.extract("{\"choices\":[{\"delta\":{\"content\":\" tok\"}}]}")).contains(" tok");
+        assertThat(ChatResponseExtractor.extract("{\"choices\":[{\"delta\":{\"content\":null}}]}")).isEmpty();
+        assertThat(ChatResponseExtractor.extract("{\"output\":{\"contents\":[{\"text\":\"legacy\"}]}}")).contains("legacy");
+        assertThat(ChatResponseExtractor.extract("{\"meta\":{\"text\":\"nested\"},\"text\":\"top\"}")).contains("top");
+        assertThat(ChatResponseExtractor.extract("{\"error\":{\"message\":\"quota\"}}")).isEmpty();
+        assertThat(ChatResponseExtractor.extract("not json")).isEmpty();
+    }
+}
@@ -0,0 +1,26 @@
+package com.skilltree.skilltreebackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTests {
+
+    @Test
+    void splitsQuotedFieldsWithCommasAndQuotes() {
+        assertThat(Csv.parseLine("ada,\"Lovelace, Ada\",\"say \"\"hi\"\"\",,"))
+                .containsExactly("ada", "Lovelace, Ada", "say \"hi\"", "", "");
+    }
+
+    @Test
+    void appendedFieldsParseBackUnchanged() {
+        StringBuilder line = new StringBuilder();
+        Csv.appendField(line, "plain");
+        line.append(',');
+        Csv.appendField(line, "a,\"b\"");
+        line.append(',');
+        Csv.appendField(line, null);
+
+        assertThat(Csv.parseLine(line.toString())).containsExactly("plain", "a,\"b\"", "");
+    }
+}
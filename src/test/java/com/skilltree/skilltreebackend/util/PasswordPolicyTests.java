@@ -0,0 +1,23 @@
+package com.skilltree.skilltreebackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordPolicyTests {
+
+    @Test
+    void acceptsPasswordsMeetingEveryRule() {
+        assertThat(PasswordPolicy.violations("abc12@xyz")).isNull();
+        assertThat(PasswordPolicy.violations("1a2b3c#d")).isNull();
+    }
+
+    @Test
+    void namesEachMissingCharacterClass() {
+        assertThat(PasswordPolicy.violations("short1@")).isEqualTo("Password must be at least 8 characters long");
+        assertThat(PasswordPolicy.violations("password12"))
+                .isEqualTo("Password must contain: 1 special character (@$!%*#?&)");
+        assertThat(PasswordPolicy.violations("12345678"))
+                .isEqualTo("Password must contain: 3 letters, 1 special character (@$!%*#?&)");
+    }
+}
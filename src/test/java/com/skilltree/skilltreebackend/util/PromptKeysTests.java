@@ -0,0 +1,22 @@
+package com.skilltree.skilltreebackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptKeysTests {
+
+    @Test
+    void ignoresCaseAndWhitespaceDifferences() {
+        assertThat(PromptKeys.normalize("fast", "  Java  Basics", "What is\tthe JVM? "))
+                .isEqualTo(PromptKeys.normalize("fast", "java basics", "what is the jvm?"));
+    }
+
+    @Test
+    void separatorInsideAPartDoesNotShiftBoundaries() {
+        assertThat(PromptKeys.normalize("fast", "a|b", "c"))
+                .isNotEqualTo(PromptKeys.normalize("fast", "a", "b|c"));
+        assertThat(PromptKeys.normalize("fast|a", "b", "c"))
+                .isNotEqualTo(PromptKeys.normalize("fast", "a|b", "c"));
+    }
+}